@@ -0,0 +1,60 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Heap retained per cached repository, as measured by JOL, for results as the upstream
+ * readers build them versus the {@link ResultCompactor} form the caches hold. Every string
+ * is a fresh instance, as it would be after parsing. Run with {@code ./gradlew footprint}.
+ */
+public final class ResultFootprint {
+    
+    private static final String[] BRANCH_NAMES = {"main", "master", "develop", "release", "gh-pages", "feature/login"};
+    
+    private ResultFootprint() {
+    }
+    
+    public static void main(String[] args) {
+        var users = 1000;
+        var repositoriesPerUser = 20;
+        var branchesPerRepository = 4;
+        var random = new Random(42);
+        
+        var plain = new ArrayList<List<RepositoryDto>>(users);
+        for (var u = 0; u < users; u++) {
+            var owner = "user-" + u;
+            var repositories = new ArrayList<RepositoryDto>(repositoriesPerUser);
+            for (var r = 0; r < repositoriesPerUser; r++) {
+                var branches = new ArrayList<BranchDto>(branchesPerRepository);
+                for (var b = 0; b < branchesPerRepository; b++) {
+                    var sha = new byte[CompactBranches.SHA_BYTES];
+                    random.nextBytes(sha);
+                    branches.add(new BranchDto(new String(BRANCH_NAMES[b % BRANCH_NAMES.length]), HexFormat.of().formatHex(sha)));
+                }
+                repositories.add(new RepositoryDto("repo-" + r, new String(owner), branches));
+            }
+            plain.add(repositories);
+        }
+        
+        var compactor = new ResultCompactor(true, 100_000, new SimpleMeterRegistry());
+        var compact = new ArrayList<List<RepositoryDto>>(users);
+        for (var repositories : plain) {
+            compact.add(compactor.repositories(repositories));
+        }
+        
+        var repositories = users * repositoriesPerUser;
+        var plainBytes = GraphLayout.parseInstance(plain).totalSize();
+        var compactBytes = GraphLayout.parseInstance(compact).totalSize();
+        System.out.printf("%d users x %d repositories x %d branches%n", users, repositoriesPerUser, branchesPerRepository);
+        System.out.printf("plain:   %,d bytes, %,d bytes per repository%n", plainBytes, plainBytes / repositories);
+        System.out.printf("compact: %,d bytes, %,d bytes per repository%n", compactBytes, compactBytes / repositories);
+    }
+}
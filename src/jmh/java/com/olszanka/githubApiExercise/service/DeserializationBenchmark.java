@@ -0,0 +1,52 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.model.GitHubBranch;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson binding of upstream payloads, configured like Spring Boot's {@link ObjectMapper}
+ * (unknown properties ignored).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeserializationBenchmark {
+    
+    @Param({"10", "100", "1000", "5000"})
+    private int items;
+    
+    private ObjectMapper objectMapper;
+    private byte[] repositories;
+    private byte[] branches;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        repositories = GitHubPayloads.repositories("bench", items, 5).getBytes(StandardCharsets.UTF_8);
+        branches = GitHubPayloads.branches("bench", "repo-0", items).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Benchmark
+    public GitHubRepository[] repositories() throws IOException {
+        return objectMapper.readValue(repositories, GitHubRepository[].class);
+    }
+    
+    @Benchmark
+    public GitHubBranch[] branches() throws IOException {
+        return objectMapper.readValue(branches, GitHubBranch[].class);
+    }
+}
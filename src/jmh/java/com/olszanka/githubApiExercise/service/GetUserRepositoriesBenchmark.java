@@ -0,0 +1,99 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.olszanka.githubApiExercise.GitHubApiExerciseApplication;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+
+/**
+ * {@link GitHubApiService#getUserRepositories} end to end - pagination, scheduling, HTTP and
+ * Jackson - against an in-process WireMock server, for different fan-out sizes and both
+ * {@link BranchFetchMode}s, with every stubbed call delayed by {@code upstreamLatencyMillis}.
+ * Conditional caching, hedging and rate limiting are switched off so every invocation pays the
+ * full upstream cost exactly once per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GetUserRepositoriesBenchmark {
+    
+    private static final String OWNER = "benchuser";
+    
+    @Param({"1", "10", "100"})
+    private int repositories;
+    
+    @Param({"sequential", "concurrent"})
+    private String mode;
+    
+    /** Per-call GitHub latency; at zero both modes cost about the same and only overhead shows. */
+    @Param({"0", "20", "100"})
+    private int upstreamLatencyMillis;
+    
+    private WireMockServer wireMockServer;
+    private ConfigurableApplicationContext context;
+    private GitHubApiService service;
+    
+    @Setup
+    public void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathEqualTo("/users/" + OWNER + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(upstreamLatencyMillis)
+                        .withBody(GitHubPayloads.repositories(OWNER, repositories, 0))));
+        for (var i = 0; i < repositories; i++) {
+            wireMockServer.stubFor(get(urlPathEqualTo("/repos/" + OWNER + "/repo-" + i + "/branches"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withFixedDelay(upstreamLatencyMillis)
+                            .withBody(GitHubPayloads.branches(OWNER, "repo-" + i, 3))));
+        }
+        
+        context = new SpringApplicationBuilder(GitHubApiExerciseApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "github.api.base-url=http://localhost:" + wireMockServer.port(),
+                        "github.api.branch-fetch.mode=" + mode,
+                        "github.api.cache.enabled=false",
+                        "github.api.branch-cache.enabled=false",
+                        "github.api.hot-users.enabled=false",
+                        "github.api.resilience.hedge.enabled=false",
+                        "github.api.rate-limit.requests-per-second=1000000",
+                        "github.api.rate-limit.burst=1000000")
+                .run();
+        service = context.getBean(GitHubApiService.class);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+        wireMockServer.stop();
+    }
+    
+    @Benchmark
+    public List<RepositoryDto> getUserRepositories() {
+        return service.getUserRepositories(OWNER);
+    }
+}
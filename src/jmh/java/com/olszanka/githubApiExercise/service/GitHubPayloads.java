@@ -0,0 +1,98 @@
+package com.olszanka.githubApiExercise.service;
+
+/**
+ * Synthetic GitHub REST payloads shaped like the real ones: the repository objects carry the
+ * URL templates, counters and nested objects GitHub sends, of which the service reads three
+ * fields, so deserialization cost is representative.
+ */
+final class GitHubPayloads {
+    
+    private GitHubPayloads() {
+    }
+    
+    /**
+     * A {@code /users/{owner}/repos} page body; every {@code forkEvery}-th repository is a fork.
+     */
+    static String repositories(String owner, int count, int forkEvery) {
+        var json = new StringBuilder(count * 2048).append('[');
+        for (var i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            var name = "repo-" + i;
+            var fullName = owner + "/" + name;
+            var api = "https://api.github.com/repos/" + fullName;
+            json.append("{\"id\":").append(100000 + i)
+                    .append(",\"node_id\":\"R_kgDO").append(Integer.toHexString(i)).append("\"")
+                    .append(",\"name\":\"").append(name).append("\"")
+                    .append(",\"full_name\":\"").append(fullName).append("\"")
+                    .append(",\"private\":false")
+                    .append(",\"owner\":{\"login\":\"").append(owner).append("\",\"id\":42,\"node_id\":\"U_kgDOAA\"")
+                    .append(",\"avatar_url\":\"https://avatars.githubusercontent.com/u/42?v=4\",\"gravatar_id\":\"\"")
+                    .append(",\"url\":\"https://api.github.com/users/").append(owner).append("\"")
+                    .append(",\"html_url\":\"https://github.com/").append(owner).append("\"")
+                    .append(",\"type\":\"User\",\"site_admin\":false}")
+                    .append(",\"html_url\":\"https://github.com/").append(fullName).append("\"")
+                    .append(",\"description\":\"Synthetic repository number ").append(i).append(" used for benchmarking\"")
+                    .append(",\"fork\":").append(forkEvery > 0 && i % forkEvery == 0)
+                    .append(",\"url\":\"").append(api).append("\"");
+            for (var template : new String[]{"forks", "keys", "collaborators", "teams", "hooks", "issue_events",
+                    "events", "assignees", "branches", "tags", "blobs", "git_tags", "git_refs", "trees", "statuses",
+                    "languages", "stargazers", "contributors", "subscribers", "subscription", "commits", "git_commits",
+                    "comments", "issue_comment", "contents", "compare", "merges", "archive", "downloads", "issues",
+                    "pulls", "milestones", "notifications", "labels", "releases", "deployments"}) {
+                json.append(",\"").append(template).append("_url\":\"").append(api).append('/').append(template).append("\"");
+            }
+            json.append(",\"created_at\":\"2020-01-01T00:00:00Z\",\"updated_at\":\"2024-06-01T12:00:00Z\"")
+                    .append(",\"pushed_at\":\"2024-06-01T12:00:00Z\"")
+                    .append(",\"git_url\":\"git://github.com/").append(fullName).append(".git\"")
+                    .append(",\"ssh_url\":\"git@github.com:").append(fullName).append(".git\"")
+                    .append(",\"clone_url\":\"https://github.com/").append(fullName).append(".git\"")
+                    .append(",\"homepage\":null,\"size\":").append(1000 + i)
+                    .append(",\"stargazers_count\":").append(i % 97)
+                    .append(",\"watchers_count\":").append(i % 97)
+                    .append(",\"language\":\"Java\",\"has_issues\":true,\"has_projects\":true,\"has_downloads\":true")
+                    .append(",\"has_wiki\":true,\"has_pages\":false,\"has_discussions\":false")
+                    .append(",\"forks_count\":").append(i % 13)
+                    .append(",\"archived\":false,\"disabled\":false,\"open_issues_count\":").append(i % 7)
+                    .append(",\"license\":{\"key\":\"mit\",\"name\":\"MIT License\",\"spdx_id\":\"MIT\"")
+                    .append(",\"url\":\"https://api.github.com/licenses/mit\",\"node_id\":\"MDc6TGljZW5zZTEz\"}")
+                    .append(",\"allow_forking\":true,\"is_template\":false,\"web_commit_signoff_required\":false")
+                    .append(",\"topics\":[\"benchmark\",\"github\",\"java\"],\"visibility\":\"public\"")
+                    .append(",\"forks\":").append(i % 13)
+                    .append(",\"open_issues\":").append(i % 7)
+                    .append(",\"watchers\":").append(i % 97)
+                    .append(",\"default_branch\":\"main\"}");
+        }
+        return json.append(']').toString();
+    }
+    
+    /**
+     * A {@code /repos/{owner}/{repo}/branches} page body.
+     */
+    static String branches(String owner, String repo, int count) {
+        var json = new StringBuilder(count * 256).append('[');
+        for (var i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            var sha = sha(repo.hashCode() * 31 + i);
+            json.append("{\"name\":\"").append(i == 0 ? "main" : "feature-" + i).append("\"")
+                    .append(",\"commit\":{\"sha\":\"").append(sha).append("\"")
+                    .append(",\"url\":\"https://api.github.com/repos/").append(owner).append('/').append(repo)
+                    .append("/commits/").append(sha).append("\"}")
+                    .append(",\"protected\":").append(i == 0).append('}');
+        }
+        return json.append(']').toString();
+    }
+    
+    static String sha(int seed) {
+        var hex = new StringBuilder(40);
+        var value = Integer.toUnsignedLong(seed) * 0x9E3779B97F4A7C15L;
+        while (hex.length() < 40) {
+            value = value * 6364136223846793005L + 1442695040888963407L;
+            hex.append(String.format("%016x", value));
+        }
+        return hex.substring(0, 40);
+    }
+}
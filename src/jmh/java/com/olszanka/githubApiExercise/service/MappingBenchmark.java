@@ -0,0 +1,88 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import com.olszanka.githubApiExercise.model.GitHubBranch;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Upstream bytes to {@link RepositoryDto}s, comparing the original pipeline - bind whole
+ * arrays, then filter forks and map with streams - to the {@link GitHubPageConverter}
+ * streaming reader. Run with the {@code gc} profiler (enabled in {@code build.gradle}) to see
+ * allocation per operation next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+    
+    @Param({"10", "100", "1000", "5000"})
+    private int repositories;
+    
+    @Param({"5"})
+    private int branchesPerRepository;
+    
+    private ObjectMapper objectMapper;
+    private byte[] repositoriesJson;
+    private byte[] branchesJson;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        repositoriesJson = GitHubPayloads.repositories("bench", repositories, 5).getBytes(StandardCharsets.UTF_8);
+        branchesJson = GitHubPayloads.branches("bench", "repo-0", branchesPerRepository).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Benchmark
+    public List<RepositoryDto> databindThenMap() throws IOException {
+        var parsed = objectMapper.readValue(repositoriesJson, GitHubRepository[].class);
+        return Arrays.stream(parsed)
+                .filter(repo -> !repo.fork())
+                .map(repo -> {
+                    GitHubBranch[] branches;
+                    try {
+                        branches = objectMapper.readValue(branchesJson, GitHubBranch[].class);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    var branchDtos = Arrays.stream(branches)
+                            .map(branch -> new BranchDto(branch.name(), branch.commit().sha()))
+                            .collect(Collectors.toList());
+                    return new RepositoryDto(repo.name(), repo.owner().login(), branchDtos);
+                })
+                .collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<RepositoryDto> streamingReader() throws IOException {
+        List<GitHubRepository> ownRepositories;
+        try (var parser = objectMapper.getFactory().createParser(repositoriesJson)) {
+            ownRepositories = GitHubPageConverter.readRepositories(parser);
+        }
+        var result = new ArrayList<RepositoryDto>(ownRepositories.size());
+        for (var repo : ownRepositories) {
+            try (var parser = objectMapper.getFactory().createParser(branchesJson)) {
+                result.add(RestRepositorySource.toRepositoryDto(repo, GitHubPageConverter.readBranches(parser)));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,304 @@
+package com.olszanka.githubApiExercise.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the GitHub REST API with production-like behaviour, for load tests.
+ * <p>
+ * Every username exists (except those starting with {@code missing-}) and owns
+ * {@code repositoriesPerUser} repositories, every {@code forkEvery}-th of them a fork, each with
+ * {@code branchesPerRepository} branches. Data is derived from the names and, when
+ * {@code churnInterval} is set, from a per-user generation that moves on once per interval
+ * (staggered across users), so each account's pushes and commit SHAs, and with them its
+ * {@code ETag}s, change over time like on a live instance. List endpoints are paginated with
+ * {@code per_page}/{@code page} and {@code Link} headers and carry an {@code ETag}; a matching
+ * {@code If-None-Match} gets a 304, which like on GitHub does not count against the rate limit.
+ * <p>
+ * Each response is delayed by a log-normal sample around {@code medianLatency} (spread
+ * {@code latencySigma}), fails with a 502 at {@code errorRate}, and is subject to a primary
+ * budget of {@code rateLimit} calls per {@code rateLimitWindow} (403 with
+ * {@code X-RateLimit-Remaining: 0} when spent) and, when set, a secondary limit of
+ * {@code maxRequestsPerSecond} (429 with {@code Retry-After}).
+ */
+public final class GitHubSimulator implements AutoCloseable {
+    
+    private static final Pattern REPOS = Pattern.compile("^/users/([^/]+)/repos$");
+    private static final Pattern BRANCHES = Pattern.compile("^/repos/([^/]+)/([^/]+)/branches$");
+    private static final Instant PUSHED_AT = Instant.parse("2024-06-01T12:00:00Z");
+    
+    public record Config(int repositoriesPerUser,
+                         int branchesPerRepository,
+                         int forkEvery,
+                         Duration churnInterval,
+                         Duration medianLatency,
+                         double latencySigma,
+                         double errorRate,
+                         int rateLimit,
+                         Duration rateLimitWindow,
+                         int maxRequestsPerSecond) {}
+    
+    private final Config config;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    
+    private long windowStartMillis = System.currentTimeMillis();
+    private int usedInWindow;
+    private long secondStartMillis = System.currentTimeMillis();
+    private int usedInSecond;
+    
+    public GitHubSimulator(Config config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+    
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    /** Every request received, including 304s and injected failures. */
+    public long calls() {
+        return calls.get();
+    }
+    
+    public long notModified() {
+        return notModified.get();
+    }
+    
+    public long errors() {
+        return errors.get();
+    }
+    
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            calls.incrementAndGet();
+            sleep(latency());
+            
+            var uri = exchange.getRequestURI();
+            var repos = REPOS.matcher(uri.getPath());
+            var branches = BRANCHES.matcher(uri.getPath());
+            var isRepos = repos.matches();
+            if (isRepos ? repos.group(1).startsWith("missing-") : !branches.matches()) {
+                send(exchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+            
+            var total = isRepos ? config.repositoriesPerUser() : config.branchesPerRepository();
+            var perPage = Math.max(1, Math.min(100, intParam(uri, "per_page", 30)));
+            var page = Math.max(1, intParam(uri, "page", 1));
+            var lastPage = Math.max(1, (total + perPage - 1) / perPage);
+            var first = Math.min(total, (page - 1) * perPage);
+            var last = Math.min(total, first + perPage);
+            var generation = generation(isRepos ? repos.group(1) : branches.group(1));
+            var body = isRepos
+                    ? repositoriesJson(repos.group(1), generation, first, last)
+                    : branchesJson(branches.group(1), branches.group(2), generation, first, last);
+            var etag = "W/\"" + Integer.toHexString(body.hashCode()) + "\"";
+            
+            var headers = exchange.getResponseHeaders();
+            headers.set("ETag", etag);
+            if (page < lastPage) {
+                var base = "http://localhost:" + server.getAddress().getPort() + uri.getPath() + "?per_page=" + perPage + "&page=";
+                headers.set("Link", "<" + base + (page + 1) + ">; rel=\"next\", <" + base + lastPage + ">; rel=\"last\"");
+            }
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                rateLimitHeaders(exchange, false);
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            if (!admit(exchange)) {
+                return;
+            }
+            if (config.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.errorRate()) {
+                errors.incrementAndGet();
+                send(exchange, 502, "{\"message\":\"Server Error\"}");
+                return;
+            }
+            send(exchange, 200, body);
+        }
+    }
+    
+    /**
+     * Applies the secondary and primary limits, answering the request itself when it is refused.
+     */
+    private boolean admit(HttpExchange exchange) throws IOException {
+        boolean secondaryExceeded;
+        synchronized (this) {
+            var now = System.currentTimeMillis();
+            if (now - secondStartMillis >= 1000) {
+                secondStartMillis = now;
+                usedInSecond = 0;
+            }
+            secondaryExceeded = config.maxRequestsPerSecond() > 0 && ++usedInSecond > config.maxRequestsPerSecond();
+        }
+        if (secondaryExceeded) {
+            rateLimited.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 429, "{\"message\":\"You have exceeded a secondary rate limit.\"}");
+            return false;
+        }
+        if (!rateLimitHeaders(exchange, true)) {
+            rateLimited.incrementAndGet();
+            send(exchange, 403, "{\"message\":\"API rate limit exceeded.\"}");
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Sets the {@code X-RateLimit-*} headers, optionally charging one call; {@code false} when
+     * the budget was already spent.
+     */
+    private boolean rateLimitHeaders(HttpExchange exchange, boolean charge) {
+        int remaining;
+        long reset;
+        boolean admitted;
+        synchronized (this) {
+            var now = System.currentTimeMillis();
+            if (now - windowStartMillis >= config.rateLimitWindow().toMillis()) {
+                windowStartMillis = now;
+                usedInWindow = 0;
+            }
+            admitted = usedInWindow < config.rateLimit();
+            if (charge && admitted) {
+                usedInWindow++;
+            }
+            remaining = Math.max(0, config.rateLimit() - usedInWindow);
+            reset = (windowStartMillis + config.rateLimitWindow().toMillis()) / 1000;
+        }
+        var headers = exchange.getResponseHeaders();
+        headers.set("X-RateLimit-Limit", String.valueOf(config.rateLimit()));
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(reset));
+        return admitted;
+    }
+    
+    /**
+     * How many times the user's data has changed so far: 0 without churn, otherwise the number of
+     * elapsed {@code churnInterval}s, offset per user so that not every account changes at once.
+     */
+    private long generation(String user) {
+        var interval = config.churnInterval().toMillis();
+        if (interval <= 0) {
+            return 0;
+        }
+        var offset = Math.floorMod(user.hashCode(), interval);
+        return (System.currentTimeMillis() + offset) / interval;
+    }
+    
+    private String repositoriesJson(String user, long generation, int from, int to) {
+        var pushedAt = PUSHED_AT.plusSeconds(generation).toString();
+        var json = new StringBuilder(256 * (to - from)).append('[');
+        for (var i = from; i < to; i++) {
+            if (i > from) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"repo-").append(i).append('"')
+                    .append(",\"full_name\":\"").append(user).append("/repo-").append(i).append('"')
+                    .append(",\"owner\":{\"login\":\"").append(user).append("\",\"type\":\"User\"}")
+                    .append(",\"fork\":").append(config.forkEvery() > 0 && i % config.forkEvery() == config.forkEvery() - 1)
+                    .append(",\"pushed_at\":\"").append(pushedAt).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+    
+    private static String branchesJson(String user, String repository, long generation, int from, int to) {
+        var json = new StringBuilder(128 * (to - from)).append('[');
+        for (var i = from; i < to; i++) {
+            if (i > from) {
+                json.append(',');
+            }
+            var name = i == 0 ? "main" : "branch-" + i;
+            json.append("{\"name\":\"").append(name).append('"')
+                    .append(",\"commit\":{\"sha\":\"").append(sha(user + "/" + repository + "/" + name + "@" + generation)).append("\"}")
+                    .append(",\"protected\":false}");
+        }
+        return json.append(']').toString();
+    }
+    
+    private static String sha(String seed) {
+        var bytes = new byte[20];
+        var hash = seed.hashCode();
+        for (var i = 0; i < bytes.length; i++) {
+            hash = hash * 31 + i;
+            bytes[i] = (byte) (hash ^ (hash >>> 8));
+        }
+        return HexFormat.of().formatHex(bytes);
+    }
+    
+    private Duration latency() {
+        if (config.medianLatency().isZero()) {
+            return Duration.ZERO;
+        }
+        var factor = Math.exp(config.latencySigma() * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (config.medianLatency().toNanos() * factor));
+    }
+    
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static int intParam(URI uri, String name, int defaultValue) {
+        var query = uri.getRawQuery();
+        if (query == null) {
+            return defaultValue;
+        }
+        for (var pair : query.split("&")) {
+            var separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                try {
+                    return Integer.parseInt(pair.substring(separator + 1));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+    
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,245 @@
+package com.olszanka.githubApiExercise.loadtest;
+
+import com.olszanka.githubApiExercise.GitHubApiExerciseApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator: starts a {@link GitHubSimulator} and the application against it, then drives
+ * it for {@code duration} in one of two modes.
+ * <ul>
+ *   <li>Open loop (default): {@code rate} requests per second regardless of how fast they are
+ *   answered. Latency is measured from each request's scheduled start, so queuing inside the
+ *   client counts too and a stalled server cannot hide its backlog.</li>
+ *   <li>Closed loop, with {@code clients} set: that many concurrent clients, each sending its
+ *   next request as soon as the previous one is answered, to compare how many requests the
+ *   stacks complete at a fixed concurrency and how many threads they need for it.</li>
+ * </ul>
+ * <p>
+ * Usernames are drawn from {@code users} names with a Zipf distribution ({@code zipf} = 0 is
+ * uniform), so caches see a realistic mix of hot and cold users. The report lists throughput,
+ * status codes, latency percentiles, upstream amplification (simulator calls per request) and
+the JVM's peak and live platform thread counts during the run. The load runs in the same JVM,
+but on virtual threads, which these counts leave out.
+ * <p>
+ * Settings are {@code loadtest.*} system properties, see {@link #setting}. {@code spring.*} and
+ * {@code github.*} system properties reach the application, e.g.
+ * {@code -Dspring.profiles.active=reactive} or {@code -Dgithub.api.resilience.hedge.enabled=false}.
+ */
+public final class LoadTest {
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        var rate = Integer.parseInt(setting("rate", "50"));
+        var clients = Integer.parseInt(setting("clients", "0"));
+        var duration = Duration.parse("PT" + setting("duration", "30s"));
+        var warmup = Duration.parse("PT" + setting("warmup", "5s"));
+        var users = Integer.parseInt(setting("users", "500"));
+        var zipf = Double.parseDouble(setting("zipf", "1.0"));
+        var path = setting("path", "/api/github/repositories/%s");
+        
+        var simulatorConfig = new GitHubSimulator.Config(
+                Integer.parseInt(setting("repositories", "150")),
+                Integer.parseInt(setting("branches", "3")),
+                Integer.parseInt(setting("fork-every", "5")),
+                Duration.parse("PT" + setting("churn", "60s")),
+                Duration.parse("PT" + setting("latency", "0.08s")),
+                Double.parseDouble(setting("latency-sigma", "0.5")),
+                Double.parseDouble(setting("error-rate", "0.01")),
+                Integer.parseInt(setting("rate-limit", "5000")),
+                Duration.parse("PT" + setting("rate-limit-window", "1h")),
+                Integer.parseInt(setting("max-requests-per-second", "0")));
+        
+        try (var simulator = new GitHubSimulator(simulatorConfig);
+             var application = new SpringApplicationBuilder(GitHubApiExerciseApplication.class)
+                     .properties("github.api.base-url=" + simulator.baseUrl(), "server.port=0")
+                     .run(args)) {
+            var baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            var sampler = new ZipfSampler(users, zipf, new Random(42));
+            var client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            
+            var threads = ManagementFactory.getThreadMXBean();
+            
+            System.out.printf("Warming up for %s...%n", warmup);
+            run(client, baseUrl, path, sampler, rate, clients, warmup);
+            
+            var callsBefore = simulator.calls();
+            threads.resetPeakThreadCount();
+            System.out.printf("Running %s for %s against %s...%n",
+                    clients > 0 ? clients + " concurrent clients" : rate + " req/s", duration, simulator.baseUrl());
+            var result = run(client, baseUrl, path, sampler, rate, clients, duration);
+            var upstreamCalls = simulator.calls() - callsBefore;
+            
+            result.print(duration, upstreamCalls);
+            System.out.printf("threads:    peak %d, live %d (platform threads)%n",
+                    threads.getPeakThreadCount(), threads.getThreadCount());
+            System.out.printf("simulator: %d not modified, %d injected errors, %d rate limited (whole run)%n",
+                    simulator.notModified(), simulator.errors(), simulator.rateLimited());
+        }
+    }
+    
+    private static Result run(HttpClient client, String baseUrl, String path, ZipfSampler sampler,
+                              int rate, int clients, Duration duration) throws InterruptedException {
+        return clients > 0
+                ? runClosedLoop(client, baseUrl, path, sampler, clients, duration)
+                : runOpenLoop(client, baseUrl, path, sampler, rate, duration);
+    }
+    
+    private static Result runOpenLoop(HttpClient client, String baseUrl, String path, ZipfSampler sampler,
+                                      int rate, Duration duration) throws InterruptedException {
+        var total = (int) (rate * duration.toMillis() / 1000);
+        var intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        var result = new Result(total);
+        var start = System.nanoTime();
+        
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < total; i++) {
+                var scheduled = start + i * intervalNanos;
+                var wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                var request = request(baseUrl, path, sampler);
+                executor.execute(() -> result.record(send(client, request), System.nanoTime() - scheduled));
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+    
+    private static Result runClosedLoop(HttpClient client, String baseUrl, String path, ZipfSampler sampler,
+                                        int clients, Duration duration) {
+        var result = new Result(clients * 64);
+        var start = System.nanoTime();
+        var end = start + duration.toNanos();
+        
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < clients; i++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() - end < 0) {
+                        var sent = System.nanoTime();
+                        result.record(send(client, request(baseUrl, path, sampler)), System.nanoTime() - sent);
+                    }
+                });
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+    
+    private static HttpRequest request(String baseUrl, String path, ZipfSampler sampler) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path.formatted(sampler.next())))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+    
+    /**
+     * Sends the request and returns its status, {@code -1} when it failed without one.
+     */
+    private static int send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Reads {@code -Dloadtest.<name>}.
+     */
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+    
+    private static final class Result {
+        
+        private long[] latencies;
+        private int completed;
+        private final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+        
+        Result(int capacity) {
+            this.latencies = new long[Math.max(16, capacity)];
+        }
+        
+        void record(int status, long latencyNanos) {
+            synchronized (this) {
+                if (completed == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, latencies.length * 2);
+                }
+                latencies[completed++] = latencyNanos;
+            }
+            statuses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+        }
+        
+        synchronized void print(Duration duration, long upstreamCalls) {
+            var count = completed;
+            var sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("requests:   %d in %.1fs (%.1f req/s, target window %s)%n",
+                    count, elapsedNanos / 1e9, count / (elapsedNanos / 1e9), duration);
+            System.out.printf("statuses:   %s%n", new TreeMap<>(statuses));
+            System.out.printf("latency ms: p50 %.1f  p99 %.1f  p999 %.1f  max %.1f%n",
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6);
+            System.out.printf("upstream:   %d calls, %.2f per request%n",
+                    upstreamCalls, count == 0 ? 0 : (double) upstreamCalls / count);
+        }
+        
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            var index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+    
+    /**
+     * Draws {@code user-<rank>} with probability proportional to {@code 1 / rank^exponent}.
+     */
+    private static final class ZipfSampler {
+        
+        private final double[] cumulative;
+        private final Random random;
+        
+        ZipfSampler(int users, double exponent, Random random) {
+            this.cumulative = new double[users];
+            this.random = random;
+            var sum = 0.0;
+            for (var rank = 1; rank <= users; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (var i = 0; i < users; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+        
+        synchronized String next() {
+            var index = Arrays.binarySearch(cumulative, random.nextDouble());
+            var rank = (index >= 0 ? index : Math.min(cumulative.length - 1, -index - 1)) + 1;
+            return "user-" + rank;
+        }
+    }
+}
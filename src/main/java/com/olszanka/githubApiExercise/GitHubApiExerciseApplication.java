@@ -1,10 +1,20 @@
 package com.olszanka.githubApiExercise;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @SpringBootApplication
 public class GitHubApiExerciseApplication {
 
@@ -13,7 +23,25 @@ public class GitHubApiExerciseApplication {
 	}
 
 	@Bean
-	public RestClient restClient() {
-		return RestClient.builder().build();
+	public RestClient restClient(ClientHttpRequestFactory requestFactory,
+								 ObjectMapper objectMapper,
+								 @Value("${github.api.token:}") String token) {
+		var builder = RestClient.builder()
+				.requestFactory(requestFactory)
+				.messageConverters(converters -> converters.add(0, new GitHubPageConverter(objectMapper.getFactory())));
+		if (!token.isBlank()) {
+			builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Virtual threads for upstream fan-out. Tasks inherit the submitter's observation context,
+	 * so per-branch and per-page spans nest under the incoming request's span.
+	 */
+	@Bean(destroyMethod = "close")
+	public ExecutorService upstreamExecutor() {
+		var snapshots = ContextSnapshotFactory.builder().build();
+		return ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(), snapshots::captureAll);
 	}
-} 
\ No newline at end of file
+}
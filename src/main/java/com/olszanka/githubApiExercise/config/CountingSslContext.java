@@ -0,0 +1,82 @@
+package com.olszanka.githubApiExercise.config;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.security.SecureRandom;
+
+/**
+ * The default {@link SSLContext}, calling {@code onEngine} whenever an {@link SSLEngine} is
+ * created. The JDK {@code HttpClient} creates one per TLS connection and offers no other hook
+ * into its pool, so this is how connections opened by that transport are counted.
+ */
+class CountingSslContext extends SSLContext {
+    
+    CountingSslContext(SSLContext delegate, Runnable onEngine) {
+        super(new Spi(delegate, onEngine), delegate.getProvider(), delegate.getProtocol());
+    }
+    
+    private static final class Spi extends SSLContextSpi {
+        
+        private final SSLContext delegate;
+        private final Runnable onEngine;
+        
+        Spi(SSLContext delegate, Runnable onEngine) {
+            this.delegate = delegate;
+            this.onEngine = onEngine;
+        }
+        
+        @Override
+        protected void engineInit(KeyManager[] keyManagers, TrustManager[] trustManagers, SecureRandom random) {
+            // The delegate is initialised already.
+        }
+        
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            onEngine.run();
+            return delegate.createSSLEngine();
+        }
+        
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            onEngine.run();
+            return delegate.createSSLEngine(host, port);
+        }
+        
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+        
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+        
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+        
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+        
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+        
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
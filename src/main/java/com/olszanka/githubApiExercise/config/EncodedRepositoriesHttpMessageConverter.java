@@ -0,0 +1,80 @@
+package com.olszanka.githubApiExercise.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.service.EncodedRepositories;
+import com.olszanka.githubApiExercise.service.GitHubObservations;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link EncodedRepositories} in every format it has an {@link ObjectMapper} for. The
+ * first response in a format is serialized (and timed as the {@code serialization} phase); later
+ * ones copy the kept bytes straight to the response with a {@code Content-Length}.
+ */
+public class EncodedRepositoriesHttpMessageConverter extends AbstractHttpMessageConverter<EncodedRepositories> {
+    
+    private final Map<MediaType, ObjectMapper> objectMappers;
+    private final GitHubObservations observations;
+    
+    /**
+     * @param objectMappers mapper per media type, the first one being used when the client
+     *                      accepts anything
+     */
+    public EncodedRepositoriesHttpMessageConverter(Map<MediaType, ObjectMapper> objectMappers,
+                                                   GitHubObservations observations) {
+        super(objectMappers.keySet().toArray(MediaType[]::new));
+        this.objectMappers = objectMappers;
+        this.observations = observations;
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedRepositories.class.isAssignableFrom(clazz);
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    protected EncodedRepositories readInternal(Class<? extends EncodedRepositories> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("EncodedRepositories is write-only", inputMessage);
+    }
+    
+    @Override
+    protected Long getContentLength(EncodedRepositories result, MediaType contentType) {
+        return (long) encode(result, contentType).length;
+    }
+    
+    @Override
+    protected void writeInternal(EncodedRepositories result, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        outputMessage.getBody().write(encode(result, outputMessage.getHeaders().getContentType()));
+    }
+    
+    private byte[] encode(EncodedRepositories result, MediaType contentType) {
+        var mediaType = contentType == null ? getSupportedMediaTypes().get(0) : contentType;
+        return result.encode(mediaType, type -> {
+            var objectMapper = objectMappers.get(type);
+            if (objectMapper == null) {
+                throw new HttpMessageNotWritableException("No encoding for " + type);
+            }
+            return observations.phase("serialization", () -> {
+                try {
+                    return objectMapper.writeValueAsBytes(result.repositories());
+                } catch (JsonProcessingException e) {
+                    throw new HttpMessageNotWritableException("Could not write repositories: " + e.getOriginalMessage(), e);
+                }
+            });
+        });
+    }
+}
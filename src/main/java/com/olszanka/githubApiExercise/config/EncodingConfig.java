@@ -0,0 +1,54 @@
+package com.olszanka.githubApiExercise.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.olszanka.githubApiExercise.service.GitHubObservations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Binary response formats next to JSON, chosen through the {@code Accept} header:
+ * {@code application/cbor} and {@code application/x-jackson-smile}. Both carry the same
+ * fields as the JSON and use Boot's Jackson settings; Smile also back-references repeated
+ * short values such as {@code owner_login}. Hot-user results are written from
+ * cached bytes by {@link EncodedRepositoriesHttpMessageConverter}, in any of the three.
+ */
+@Configuration
+public class EncodingConfig {
+    
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        var factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+    
+    @Bean
+    public EncodedRepositoriesHttpMessageConverter encodedRepositoriesHttpMessageConverter(
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter,
+            GitHubObservations observations) {
+        var objectMappers = new LinkedHashMap<MediaType, ObjectMapper>();
+        objectMappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        objectMappers.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+        objectMappers.put(APPLICATION_SMILE, smileConverter.getObjectMapper());
+        return new EncodedRepositoriesHttpMessageConverter(objectMappers, observations);
+    }
+}
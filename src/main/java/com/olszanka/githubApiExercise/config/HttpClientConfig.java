@@ -0,0 +1,154 @@
+package com.olszanka.githubApiExercise.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import javax.net.ssl.SSLContext;
+import java.net.http.HttpClient;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * HTTP transport behind the {@code restClient} bean, selected with {@code github.api.http.client}.
+ * <ul>
+ *   <li>{@code apache} (default) - Apache HttpClient 5 with a sized, observable connection pool,
+ *   keep-alive reuse and transparent gzip. HTTP/1.1 only. Idle connections are kept for the
+ *   server's {@code Keep-Alive} timeout, capped at {@code keep-alive}; busy connections live up
+ *   to {@code connection-ttl}.</li>
+ *   <li>{@code jdk} - the JDK {@link HttpClient} with HTTP/2 multiplexing and gzip through
+ *   {@link GzipResponseInterceptor}. Its internal pool is not configurable per client and only
+ *   the TLS connections it opens can be counted.</li>
+ * </ul>
+ */
+@Configuration
+public class HttpClientConfig {
+    
+    private static final String ACQUIRE_START = HttpClientConfig.class.getName() + ".acquireStart";
+    
+    @Value("${github.api.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+    
+    @Value("${github.api.http.read-timeout:10s}")
+    private Duration readTimeout;
+    
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "github.api.http.client", havingValue = "apache", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager gitHubConnectionManager(
+            @Value("${github.api.http.max-connections:200}") int maxConnections,
+            @Value("${github.api.http.max-connections-per-route:100}") int maxConnectionsPerRoute,
+            @Value("${github.api.http.connection-ttl:10m}") Duration connectionTtl,
+            MeterRegistry meterRegistry) {
+        var opened = Counter.builder("github.http.connections.opened")
+                .description("Connections opened; stays flat while pooled connections are reused").register(meterRegistry);
+        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setConnectionFactory(socket -> {
+                    opened.increment();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.createConnection(socket);
+                })
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        // Zero keeps connections for as long as they are reused and not idle too long.
+                        .setTimeToLive(connectionTtl.isZero() ? TimeValue.NEG_ONE_MILLISECOND : TimeValue.ofMilliseconds(connectionTtl.toMillis()))
+                        .build())
+                .build();
+        
+        Gauge.builder("github.http.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Connections currently in use").register(meterRegistry);
+        Gauge.builder("github.http.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Requests waiting for a connection").register(meterRegistry);
+        Gauge.builder("github.http.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Idle connections ready for reuse").register(meterRegistry);
+        Gauge.builder("github.http.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .description("Pool capacity").register(meterRegistry);
+        return connectionManager;
+    }
+    
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "github.api.http.client", havingValue = "apache", matchIfMissing = true)
+    public CloseableHttpClient gitHubHttpClient(
+            PoolingHttpClientConnectionManager gitHubConnectionManager,
+            @Value("${github.api.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${github.api.http.keep-alive:30s}") Duration keepAlive,
+            MeterRegistry meterRegistry) {
+        var acquireTimer = Timer.builder("github.http.connection.acquire")
+                .description("Time to obtain a ready connection: pool wait plus connect and TLS handshake for new ones")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        
+        return HttpClients.custom()
+                .setConnectionManager(gitHubConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    // Honour a shorter Keep-Alive timeout announced by the server, never a longer one.
+                    var announced = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    var cap = TimeValue.ofMilliseconds(keepAlive.toMillis());
+                    return TimeValue.isPositive(announced) && announced.compareTo(cap) < 0 ? announced : cap;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                // The connect step leases (and if needed opens) the connection; time it up to the transport step.
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "acquire-start", (request, scope, chain) -> {
+                    scope.clientContext.setAttribute(ACQUIRE_START, System.nanoTime());
+                    return chain.proceed(request, scope);
+                })
+                .addExecInterceptorBefore(ChainElement.MAIN_TRANSPORT.name(), "acquire-end", (request, scope, chain) -> {
+                    if (scope.clientContext.getAttribute(ACQUIRE_START) instanceof Long start) {
+                        acquireTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                    }
+                    return chain.proceed(request, scope);
+                })
+                .build();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "github.api.http.client", havingValue = "apache", matchIfMissing = true)
+    public ClientHttpRequestFactory apacheRequestFactory(CloseableHttpClient gitHubHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(gitHubHttpClient);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "github.api.http.client", havingValue = "jdk")
+    public ClientHttpRequestFactory jdkRequestFactory(ExecutorService upstreamExecutor, MeterRegistry meterRegistry)
+            throws NoSuchAlgorithmException {
+        var opened = Counter.builder("github.http.connections.opened")
+                .description("Connections opened; stays flat while pooled connections are reused").register(meterRegistry);
+        var httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .sslContext(new CountingSslContext(SSLContext.getDefault(), opened::increment))
+                .executor(upstreamExecutor)
+                .build();
+        var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return new InterceptingClientHttpRequestFactory(requestFactory, List.of(new GzipResponseInterceptor()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.olszanka.githubApiExercise.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import com.olszanka.githubApiExercise.service.GitHubObservations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Times serialization of repository lists as the {@code serialization} phase of
+ * {@code github.request.phase}; other bodies (errors, actuator) are written untimed. Declaring
+ * the converter replaces Boot's default one, so the JSON output is unchanged.
+ */
+@Configuration
+public class ObservabilityConfig {
+    
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   GitHubObservations observations) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                if (!isRepositoryList(object)) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                try {
+                    observations.phase("serialization", () -> {
+                        try {
+                            super.writeInternal(object, type, outputMessage);
+                            return null;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+    }
+    
+    private static boolean isRepositoryList(Object object) {
+        return object instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof RepositoryDto;
+    }
+}
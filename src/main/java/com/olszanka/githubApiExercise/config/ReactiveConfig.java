@@ -0,0 +1,25 @@
+package com.olszanka.githubApiExercise.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * {@link WebClient} for the {@code reactive} profile, built from Boot's builder so the codec
+ * limits in {@code application-reactive.properties} and the observation setup apply.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+    
+    @Bean
+    public WebClient gitHubWebClient(WebClient.Builder builder, @Value("${github.api.token:}") String token) {
+        if (!token.isBlank()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
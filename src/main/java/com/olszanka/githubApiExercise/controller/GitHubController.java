@@ -1,14 +1,20 @@
 package com.olszanka.githubApiExercise.controller;
 
+import com.olszanka.githubApiExercise.dto.BatchRequestDto;
 import com.olszanka.githubApiExercise.service.GitHubApiService;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/github")
+@Profile("!reactive")
 public class GitHubController {
     
     private final GitHubApiService gitHubApiService;
@@ -18,7 +24,18 @@ public class GitHubController {
     }
     
     @GetMapping("/repositories/{username}")
-    public ResponseEntity<?> getUserRepositories(@PathVariable String username) {
-        return gitHubApiService.getUserRepositoriesWithValidation(username);
+    public ResponseEntity<?> getUserRepositories(@PathVariable String username,
+                                                 @RequestParam(defaultValue = "false") boolean partial) {
+        return gitHubApiService.getUserRepositoriesWithValidation(username, partial);
+    }
+    
+    @GetMapping("/repositories/{username}/stream")
+    public ResponseEntity<?> streamUserRepositories(@PathVariable String username) {
+        return gitHubApiService.streamUserRepositoriesWithValidation(username);
+    }
+    
+    @PostMapping("/repositories:batch")
+    public ResponseEntity<?> getBatchRepositories(@RequestBody BatchRequestDto request) {
+        return gitHubApiService.streamBatchWithValidation(request.usernames());
     }
 } 
\ No newline at end of file
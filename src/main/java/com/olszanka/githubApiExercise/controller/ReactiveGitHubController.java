@@ -0,0 +1,54 @@
+package com.olszanka.githubApiExercise.controller;
+
+import com.olszanka.githubApiExercise.dto.ErrorResponseDto;
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import com.olszanka.githubApiExercise.service.ReactiveGitHubApiService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/github")
+@Profile("reactive")
+public class ReactiveGitHubController {
+    
+    private final ReactiveGitHubApiService gitHubApiService;
+    
+    public ReactiveGitHubController(ReactiveGitHubApiService gitHubApiService) {
+        this.gitHubApiService = gitHubApiService;
+    }
+    
+    @GetMapping("/repositories/{username}")
+    public Mono<ResponseEntity<?>> getUserRepositories(@PathVariable String username,
+                                                       @RequestParam(defaultValue = "false") boolean partial) {
+        return (partial ? gitHubApiService.getPartialUserRepositories(username) : gitHubApiService.getUserRepositories(username))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(GitHubApiException.class, e -> Mono.just(errorResponse(e)));
+    }
+    
+    /**
+     * Same contract as the MVC stream endpoint: an unknown user gets a regular error response,
+     * a failure after the first line ends the stream with an {@link ErrorResponseDto} line.
+     */
+    @GetMapping("/repositories/{username}/stream")
+    public Mono<ResponseEntity<?>> streamUserRepositories(@PathVariable String username) {
+        return gitHubApiService.openStream(username, false)
+                .<ResponseEntity<?>>map(repositories -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(repositories.cast(Object.class).onErrorResume(GitHubApiException.class,
+                                e -> Mono.just(new ErrorResponseDto(e.getStatusCode(), e.getMessage())))))
+                .onErrorResume(GitHubApiException.class, e -> Mono.just(errorResponse(e)));
+    }
+    
+    private static ResponseEntity<ErrorResponseDto> errorResponse(GitHubApiException e) {
+        return ResponseEntity.status(HttpStatus.valueOf(e.getStatusCode()))
+                .body(new ErrorResponseDto(e.getStatusCode(), e.getMessage()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.olszanka.githubApiExercise.controller;
+
+import com.olszanka.githubApiExercise.service.WebhookService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives GitHub webhook deliveries; served by both the MVC and the reactive stack.
+ */
+@RestController
+@RequestMapping("/api/github")
+public class WebhookController {
+    
+    private final WebhookService webhookService;
+    
+    public WebhookController(WebhookService webhookService) {
+        this.webhookService = webhookService;
+    }
+    
+    @PostMapping("/webhooks")
+    public ResponseEntity<?> receiveWebhook(@RequestHeader(value = "X-GitHub-Event", required = false) String event,
+                                            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+                                            @RequestBody byte[] payload) {
+        return webhookService.handleDelivery(event, signature, payload);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.olszanka.githubApiExercise.dto;
+
+import java.util.List;
+
+public record BatchRequestDto(
+    List<String> usernames
+) {}
@@ -0,0 +1,11 @@
+package com.olszanka.githubApiExercise.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResultDto(
+    String username,
+    List<RepositoryDto> repositories,
+    ErrorResponseDto error
+) {}
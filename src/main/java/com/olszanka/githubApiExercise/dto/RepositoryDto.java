@@ -1,10 +1,22 @@
 package com.olszanka.githubApiExercise.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
+/**
+ * {@code incomplete} and {@code error} are only set in partial-result mode, for a repository
+ * whose branches could not be fetched; they are left out of the JSON otherwise.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record RepositoryDto(
     String name,
     @JsonProperty("owner_login") String ownerLogin,
-    List<BranchDto> branches
-) {} 
\ No newline at end of file
+    List<BranchDto> branches,
+    Boolean incomplete,
+    String error
+) {
+    public RepositoryDto(String name, String ownerLogin, List<BranchDto> branches) {
+        this(name, ownerLogin, branches, null, null);
+    }
+}
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.olszanka.githubApiExercise.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public record GitHubRepository(
     String name,
     GitHubOwner owner,
-    boolean fork
-) {} 
\ No newline at end of file
+    boolean fork,
+    @JsonProperty("pushed_at") String pushedAt
+) {}
\ No newline at end of file
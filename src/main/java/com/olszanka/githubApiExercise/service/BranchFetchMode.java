@@ -0,0 +1,11 @@
+package com.olszanka.githubApiExercise.service;
+
+/**
+ * How {@link GitHubApiService} resolves the branches of a user's repositories.
+ */
+public enum BranchFetchMode {
+    /** One branches request after another, in repository order. */
+    SEQUENTIAL,
+    /** All branches requests in flight at once on virtual threads, bounded by a concurrency cap. */
+    CONCURRENT
+}
@@ -0,0 +1,116 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.olszanka.githubApiExercise.dto.BranchDto;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable branch list held by the caches: names are shared through {@link ResultCompactor}'s
+ * interning table and commit SHAs are packed as 20 raw bytes each in one array, instead of one
+ * {@link BranchDto} and a 40-character {@link String} per branch. Elements are materialized
+ * on access; JSON (and CBOR/Smile) is written straight from the packed form in the
+ * {@link BranchDto} shape.
+ */
+@JsonSerialize(using = CompactBranches.Serializer.class)
+final class CompactBranches extends AbstractList<BranchDto> implements RandomAccess {
+    
+    static final int SHA_BYTES = 20;
+    private static final HexFormat HEX = HexFormat.of();
+    
+    private final String[] names;
+    private final byte[] shas;
+    
+    private CompactBranches(String[] names, byte[] shas) {
+        this.names = names;
+        this.shas = shas;
+    }
+    
+    /**
+     * Packs the branches, or returns {@code null} when a SHA is not 40 hex digits and the list
+     * has to be kept as it is.
+     */
+    static CompactBranches of(List<BranchDto> branches, ResultCompactor compactor) {
+        var names = new String[branches.size()];
+        var shas = new byte[branches.size() * SHA_BYTES];
+        for (var i = 0; i < names.length; i++) {
+            var branch = branches.get(i);
+            var sha = branch.lastCommitSha();
+            if (branch.name() == null || !isLowerHexSha(sha)) {
+                return null;
+            }
+            System.arraycopy(HEX.parseHex(sha), 0, shas, i * SHA_BYTES, SHA_BYTES);
+            names[i] = compactor.intern(branch.name());
+        }
+        return new CompactBranches(names, shas);
+    }
+    
+    /**
+     * Only lowercase SHAs are packed, so the text written back is exactly what GitHub sent.
+     */
+    private static boolean isLowerHexSha(String sha) {
+        if (sha == null || sha.length() != SHA_BYTES * 2) {
+            return false;
+        }
+        for (var i = 0; i < sha.length(); i++) {
+            var c = sha.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public BranchDto get(int index) {
+        return new BranchDto(names[index], sha(index));
+    }
+    
+    @Override
+    public int size() {
+        return names.length;
+    }
+    
+    private String sha(int index) {
+        return HEX.formatHex(shas, index * SHA_BYTES, (index + 1) * SHA_BYTES);
+    }
+    
+    /**
+     * Writes {@code [{"name": ..., "last_commit_sha": ...}]} without creating any
+     * {@link BranchDto} or SHA string.
+     */
+    static final class Serializer extends StdSerializer<CompactBranches> {
+        
+        private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+        
+        Serializer() {
+            super(CompactBranches.class);
+        }
+        
+        @Override
+        public void serialize(CompactBranches branches, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            var sha = new char[SHA_BYTES * 2];
+            generator.writeStartArray(branches, branches.names.length);
+            for (var i = 0; i < branches.names.length; i++) {
+                for (var b = 0; b < SHA_BYTES; b++) {
+                    var value = branches.shas[i * SHA_BYTES + b];
+                    sha[b * 2] = DIGITS[(value >> 4) & 0xF];
+                    sha[b * 2 + 1] = DIGITS[value & 0xF];
+                }
+                generator.writeStartObject();
+                generator.writeStringField("name", branches.names[i]);
+                generator.writeFieldName("last_commit_sha");
+                generator.writeString(sha, 0, sha.length);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.olszanka.githubApiExercise.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit on requests doing live upstream work at the same time, so overload turns into
+ * fast 503s instead of unbounded latency.
+ * <p>
+ * The limit follows a gradient: every upstream call compares its latency with a long-term
+ * average. Samples are single calls rather than whole loads, whose duration grows with the
+ * number of repositories and branches fetched, so a large account does not read as congestion.
+ * They are taken by the {@link UpstreamScheduler} and include the wait for a rate-limit token,
+ * so a saturated token bucket shrinks the limit just like a slow GitHub does.
+ * While latency stays within {@code tolerance} times the average, the limit grows by about its
+ * square root; when latency rises beyond that it shrinks proportionally (at most halving), and a
+ * load failing with a 429 or 5xx cuts it by 10%. Changes are smoothed and kept between
+ * {@code min-limit} and {@code max-limit}, and the limit does not grow while less than half of
+ * it is in use.
+ * <p>
+ * A request over the limit waits up to {@code queue-timeout} for a slot, with at most
+ * {@code max-queue} waiting; otherwise it is shed.
+ */
+@Component
+public class ConcurrencyLimiter {
+    
+    private static final double LONG_RTT_WEIGHT = 0.01;
+    private static final double FAILURE_BACKOFF = 0.9;
+    
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final double tolerance;
+    private final double smoothing;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private double longRttNanos;
+    private int inFlight;
+    private int queued;
+    
+    private final Counter shed;
+    
+    public ConcurrencyLimiter(@Value("${github.api.limiter.enabled:true}") boolean enabled,
+                              @Value("${github.api.limiter.initial-limit:20}") int initialLimit,
+                              @Value("${github.api.limiter.min-limit:4}") int minLimit,
+                              @Value("${github.api.limiter.max-limit:200}") int maxLimit,
+                              @Value("${github.api.limiter.max-queue:50}") int maxQueue,
+                              @Value("${github.api.limiter.queue-timeout:50ms}") Duration queueTimeout,
+                              @Value("${github.api.limiter.tolerance:2.0}") double tolerance,
+                              @Value("${github.api.limiter.smoothing:0.2}") double smoothing,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        
+        this.shed = Counter.builder("github.limiter.shed")
+                .description("Requests rejected with 503 because the concurrency limit was reached").register(meterRegistry);
+        Gauge.builder("github.limiter.limit", this, ConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit").register(meterRegistry);
+        Gauge.builder("github.limiter.inflight", this, ConcurrencyLimiter::inFlight)
+                .description("Requests currently holding a limiter slot").register(meterRegistry);
+        Gauge.builder("github.limiter.queued", this, ConcurrencyLimiter::queued)
+                .description("Requests waiting for a limiter slot").register(meterRegistry);
+    }
+    
+    /**
+     * Takes a slot, waiting up to {@code queue-timeout} for one; {@code false} when the request
+     * has to be shed. Every successful call must be paired with {@link #release}.
+     */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue) {
+                shed.increment();
+                return false;
+            }
+            queued++;
+            try {
+                var remaining = queueTimeoutNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        shed.increment();
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shed.increment();
+                return false;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Returns a slot, feeding a failed load into the limit.
+     */
+    public void release(boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            inFlight--;
+            if (failed) {
+                limit = Math.max(minLimit, limit * FAILURE_BACKOFF);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Feeds the latency of one answered upstream call, admission included, into the limit.
+     */
+    public void sample(long latencyNanos) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            adapt(Math.max(1, latencyNanos), inFlight < limit / 2);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void adapt(long latencyNanos, boolean appLimited) {
+        longRttNanos = longRttNanos == 0 ? latencyNanos : longRttNanos * (1 - LONG_RTT_WEIGHT) + latencyNanos * LONG_RTT_WEIGHT;
+        var gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / latencyNanos));
+        if (appLimited && gradient >= 1.0) {
+            return;
+        }
+        var target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+    
+    public double limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.olszanka.githubApiExercise.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-URL store of the validators ({@code ETag}/{@code Last-Modified}) and parsed bodies of
+ * upstream responses. {@link GitHubClient} sends the validators back as conditional headers
+ * and reuses the stored body on a 304, which GitHub does not count against the rate limit.
+ * <p>
+ * Entries are kept in access order and the least recently used one is evicted once
+ * {@code maxEntries} is exceeded; entries older than {@code ttl} are dropped on lookup.
+ * Entries are also written to the {@link SnapshotStore}, which backs lookups that miss in
+ * memory, so validators survive a restart. A reloaded entry keeps the age it was written with,
+ * so it expires on the same schedule.
+ */
+@Component
+public class ConditionalRequestCache {
+    
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final SnapshotStore snapshots;
+    
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+    private final Counter evictions;
+    
+    public ConditionalRequestCache(@Value("${github.api.cache.enabled:true}") boolean enabled,
+                                   @Value("${github.api.cache.max-entries:10000}") int maxEntries,
+                                   @Value("${github.api.cache.ttl:1h}") Duration ttl,
+                                   SnapshotStore snapshots,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.snapshots = snapshots;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ConditionalRequestCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        
+        this.hits = Counter.builder("github.cache.requests").tag("result", "hit")
+                .description("Upstream requests sent with cached validators").register(meterRegistry);
+        this.misses = Counter.builder("github.cache.requests").tag("result", "miss")
+                .description("Upstream requests without a cached entry").register(meterRegistry);
+        this.notModified = Counter.builder("github.cache.not.modified")
+                .description("304 responses answered from the cache").register(meterRegistry);
+        this.evictions = Counter.builder("github.cache.evictions")
+                .description("Entries evicted to stay within the size limit").register(meterRegistry);
+        Gauge.builder("github.cache.size", this, ConditionalRequestCache::size)
+                .description("Entries currently cached").register(meterRegistry);
+    }
+    
+    /**
+     * Returns the entry for the URL, or {@code null} when there is none or it has expired.
+     * Counts the lookup as a hit or a miss.
+     */
+    public Entry get(String url) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(url);
+            if (entry != null && expired(entry)) {
+                entries.remove(url);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            entry = snapshots.loadPage(url).filter(stored -> !expired(stored)).orElse(null);
+            if (entry != null) {
+                synchronized (entries) {
+                    entries.put(url, entry);
+                }
+            }
+        }
+        (entry == null ? misses : hits).increment();
+        return entry;
+    }
+    
+    /**
+     * Stores the response if it carries at least one validator; otherwise there is nothing
+     * to revalidate with and the response is not cached.
+     */
+    public void put(String url, String etag, String lastModified, String link, Object body) {
+        if (!enabled || (etag == null && lastModified == null)) {
+            return;
+        }
+        var entry = new Entry(etag, lastModified, link, body, System.nanoTime());
+        synchronized (entries) {
+            entries.put(url, entry);
+        }
+        snapshots.savePage(url, etag, lastModified, link, body);
+    }
+    
+    /**
+     * Records a 304 and refreshes the entry's age, since GitHub just confirmed it is current.
+     */
+    public void markNotModified(String url, Entry entry) {
+        notModified.increment();
+        var refreshed = new Entry(entry.etag(), entry.lastModified(), entry.link(), entry.body(), System.nanoTime());
+        synchronized (entries) {
+            entries.put(url, refreshed);
+        }
+    }
+    
+    private boolean expired(Entry entry) {
+        return System.nanoTime() - entry.storedAtNanos() > ttlNanos;
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    public record Entry(
+        String etag,
+        String lastModified,
+        String link,
+        Object body,
+        long storedAtNanos
+    ) {}
+}
@@ -0,0 +1,36 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A result held in memory together with its serialized forms, one per media type, each
+ * filled in the first time it is written. Responses carrying it are written from these bytes,
+ * so repeated hits for the same user skip serialization entirely.
+ */
+public final class EncodedRepositories {
+    
+    private final List<RepositoryDto> repositories;
+    private final Map<MediaType, byte[]> encodings = new ConcurrentHashMap<>();
+    
+    public EncodedRepositories(List<RepositoryDto> repositories) {
+        this.repositories = repositories;
+    }
+    
+    public List<RepositoryDto> repositories() {
+        return repositories;
+    }
+    
+    /**
+     * The bytes for {@code mediaType} (parameters such as {@code charset} are ignored),
+     * produced with {@code encoder} on first use.
+     */
+    public byte[] encode(MediaType mediaType, Function<MediaType, byte[]> encoder) {
+        return encodings.computeIfAbsent(new MediaType(mediaType.getType(), mediaType.getSubtype()), encoder);
+    }
+}
@@ -1,123 +1,381 @@
 package com.olszanka.githubApiExercise.service;
 
-import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.dto.BatchResultDto;
 import com.olszanka.githubApiExercise.dto.ErrorResponseDto;
 import com.olszanka.githubApiExercise.dto.RepositoryDto;
-import com.olszanka.githubApiExercise.model.GitHubBranch;
-import com.olszanka.githubApiExercise.model.GitHubRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class GitHubApiService {
     
-    private final RestClient restClient;
-    private final String baseUrl;
+    public static final String USER_NOT_FOUND = "User not found";
     
-    public GitHubApiService(RestClient restClient, @Value("${github.api.base-url}") String baseUrl) {
-        this.restClient = restClient;
-        this.baseUrl = baseUrl;
+    private final RepositorySource repositorySource;
+    private final UnknownUserCache unknownUsers;
+    private final SnapshotStore snapshots;
+    private final HotUserCache hotUsers;
+    private final ConcurrencyLimiter limiter;
+    private final WebhookSequence webhookSequence;
+    private final ExecutorService upstreamExecutor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int batchMaxConcurrency;
+    private final int batchMaxUsernames;
+    private final Duration partialDeadline;
+    private final SingleFlight<String, ResponseEntity<?>> inFlightUsers;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    
+    public GitHubApiService(RepositorySource repositorySource,
+                            UnknownUserCache unknownUsers,
+                            SnapshotStore snapshots,
+                            HotUserCache hotUsers,
+                            ConcurrencyLimiter limiter,
+                            WebhookSequence webhookSequence,
+                            ExecutorService upstreamExecutor,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${github.api.batch.max-concurrency:16}") int batchMaxConcurrency,
+                            @Value("${github.api.batch.max-usernames:1000}") int batchMaxUsernames,
+                            @Value("${github.api.partial-results.deadline:3s}") Duration partialDeadline,
+                            @Value("${github.api.branch-fetch.timeout:10s}") Duration branchFetchTimeout) {
+        this.repositorySource = repositorySource;
+        this.unknownUsers = unknownUsers;
+        this.snapshots = snapshots;
+        this.hotUsers = hotUsers;
+        this.limiter = limiter;
+        this.webhookSequence = webhookSequence;
+        this.upstreamExecutor = upstreamExecutor;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchMaxConcurrency = batchMaxConcurrency;
+        this.batchMaxUsernames = batchMaxUsernames;
+        this.partialDeadline = partialDeadline;
+        this.inFlightUsers = new SingleFlight<>("user", branchFetchTimeout, meterRegistry);
     }
     
+    /**
+     * Concurrent requests for the same username (GitHub logins are case-insensitive) share one
+     * upstream computation and all receive its response, including error responses.
+     * <p>
+     * Hot users are answered from memory ({@link HotUserCache}), written from already
+     * serialized bytes once their result has been sent in the requested format. Otherwise a
+     * result kept in the {@link SnapshotStore} is answered immediately with an {@code Age}
+     * header; once it is stale it is refreshed in the background for later requests.
+     * <p>
+     * Only requests that need a live load pass the {@link ConcurrencyLimiter}, so cached answers
+     * are never shed; when it is saturated they get a 503.
+     */
     public ResponseEntity<?> getUserRepositoriesWithValidation(String username) {
+        return getUserRepositoriesWithValidation(username, false);
+    }
+    
+    /**
+     * With {@code partial} set the response is sent within {@code partialDeadline} of the
+     * request: repositories whose branches failed or are still loading by then are answered
+     * as incomplete ({@link RepositorySource#getPartialRepositories}). Only complete results
+     * are kept for later requests, and partial requests coalesce only with each other.
+     */
+    public ResponseEntity<?> getUserRepositoriesWithValidation(String username, boolean partial) {
+        return userRepositories(username, partial, this::limited);
+    }
+    
+    /**
+     * Answers one user, running a live load through {@code admission}.
+     */
+    private ResponseEntity<?> userRepositories(String username, boolean partial,
+                                               Function<Supplier<ResponseEntity<?>>, ResponseEntity<?>> admission) {
+        var deadline = System.nanoTime() + partialDeadline.toNanos();
+        var key = username.toLowerCase(Locale.ROOT);
+        hotUsers.recordRequest(key);
+        if (unknownUsers.isUnknown(key)) {
+            return errorResponse(new GitHubApiException(USER_NOT_FOUND, 404));
+        }
+        var hot = hotUsers.get(key);
+        if (hot != null) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.AGE, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - hot.storedAtNanos())))
+                    .body(hot.result());
+        }
+        var snapshot = snapshots.loadRepositories(key);
+        if (snapshot.isPresent()) {
+            if (snapshot.get().stale()) {
+                refreshInBackground(key, username);
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.AGE, String.valueOf(snapshot.get().ageMillis() / 1000))
+                    .body(snapshot.get().value());
+        }
+        if (partial) {
+            return coalesced("partial:" + key, () -> admission.apply(() -> loadUserRepositories(key,
+                    () -> repositorySource.getPartialRepositories(username, deadline))));
+        }
+        return coalesced(key, () -> admission.apply(() -> loadUserRepositories(key, username)));
+    }
+    
+    /**
+     * Runs a load through {@link #inFlightUsers}; a caller that gave up waiting on another
+     * caller's load gets its error response.
+     */
+    private ResponseEntity<?> coalesced(String flightKey, Supplier<ResponseEntity<?>> load) {
+        try {
+            return inFlightUsers.execute(flightKey, load);
+        } catch (GitHubApiException e) {
+            return errorResponse(e);
+        }
+    }
+    
+    /**
+     * Runs a live load under the {@link ConcurrencyLimiter}, reporting a 429 or 5xx outcome as
+     * overload; latency reaches the limiter per upstream call through {@link UpstreamScheduler}.
+     */
+    private ResponseEntity<?> limited(Supplier<ResponseEntity<?>> load) {
+        if (!limiter.tryAcquire()) {
+            return errorResponse(new GitHubApiException("Too many requests in progress, retry later", 503));
+        }
+        ResponseEntity<?> response = null;
+        try {
+            response = load.get();
+            return response;
+        } finally {
+            var status = response == null ? 500 : response.getStatusCode().value();
+            limiter.release(status == 429 || status >= 500);
+        }
+    }
+    
+    /**
+     * Reloads a hot user's result on behalf of {@link HotUserRefresher}, sharing any request
+     * for the same user already in flight.
+     */
+    public void refreshHotUser(String key) {
+        coalesced(key, () -> loadUserRepositories(key, key));
+    }
+    
+    private void refreshInBackground(String key, String username) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        upstreamExecutor.execute(() -> {
+            try {
+                coalesced(key, () -> loadUserRepositories(key, username));
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+    
+    private ResponseEntity<?> loadUserRepositories(String key, String username) {
+        return loadUserRepositories(key, () -> getUserRepositories(username));
+    }
+    
+    /**
+     * Loads and keeps a complete result, unless a webhook changed the user while it loaded: the
+     * result may predate that change, so it is only returned.
+     */
+    private ResponseEntity<?> loadUserRepositories(String key, Supplier<List<RepositoryDto>> loader) {
         try {
-            if (!userExists(username)) {
-                var errorResponse = new ErrorResponseDto(
-                        404,
-                        "User not found"
-                );
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            var sequence = webhookSequence.current(key);
+            var repositories = loader.get();
+            if (repositories.stream().noneMatch(repository -> Boolean.TRUE.equals(repository.incomplete()))) {
+                BooleanSupplier unchanged = () -> webhookSequence.current(key) == sequence;
+                snapshots.saveRepositories(key, repositories, unchanged);
+                hotUsers.put(key, repositories, unchanged);
             }
-            
-            var repositories = getUserRepositories(username);
             return ResponseEntity.ok(repositories);
         } catch (GitHubApiException e) {
-            var errorResponse = new ErrorResponseDto(
-                    e.getStatusCode(),
-                    e.getMessage()
-            );
-            return ResponseEntity.status(HttpStatus.valueOf(e.getStatusCode())).body(errorResponse);
+            rememberUnknownUser(key, e);
+            return errorResponse(e);
         }
     }
     
     public List<RepositoryDto> getUserRepositories(String username) {
-        var url = baseUrl + "/users/" + username + "/repos";
+        return repositorySource.getRepositories(username);
+    }
+    
+    /**
+     * Streams the user's repositories as NDJSON, one {@link RepositoryDto} per line in the order
+     * they complete. The upstream source confirms the user exists before streaming starts, so an
+     * unknown user still gets a regular 404 {@link ErrorResponseDto}. Errors after the first byte
+     * can no longer change the status and are reported as a final {@link ErrorResponseDto} line.
+     */
+    public ResponseEntity<?> streamUserRepositoriesWithValidation(String username) {
+        var key = username.toLowerCase(Locale.ROOT);
+        if (unknownUsers.isUnknown(key)) {
+            return errorResponse(new GitHubApiException(USER_NOT_FOUND, 404));
+        }
         
+        RepositorySource.RepositoryStream stream;
         try {
-            var repositories = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .body(GitHubRepository[].class);
-            
-            if (repositories == null) {
-                throw new GitHubApiException("Failed to retrieve repositories for user: " + username, 500);
+            stream = repositorySource.openStream(username);
+        } catch (GitHubApiException e) {
+            rememberUnknownUser(key, e);
+            return errorResponse(e);
+        }
+        
+        StreamingResponseBody body = out -> {
+            try {
+                stream.forEach(repository -> writeLine(out, repository));
+            } catch (GitHubApiException e) {
+                countError(e);
+                writeLine(out, new ErrorResponseDto(e.getStatusCode(), e.getMessage()));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Answers many usernames in one NDJSON response, one {@link BatchResultDto} per distinct
+     * username (case-insensitive, first spelling wins) in completion order. Every user takes the
+     * same path as a single request, including snapshots, the unknown-user cache and coalescing,
+     * and at most {@code batchMaxConcurrency} users are in flight at once. All their upstream
+     * calls share the rate-limit scheduler and connection pool rather than queuing per request.
+     * A user is only started once an earlier result has been written, so a slow reader also
+     * slows down the upstream work.
+     * <p>
+     * The whole batch holds a single {@link ConcurrencyLimiter} slot, taken before the response
+     * starts (a 503 when shed), so a large window cannot crowd out single requests and its
+     * entries wait for the window instead of being shed one by one.
+     */
+    public ResponseEntity<?> streamBatchWithValidation(List<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            return errorResponse(new GitHubApiException("No usernames given", 400));
+        }
+        var distinct = new LinkedHashMap<String, String>();
+        for (var username : usernames) {
+            if (username != null && !username.isBlank()) {
+                distinct.putIfAbsent(username.strip().toLowerCase(Locale.ROOT), username.strip());
             }
-            
-            return Arrays.stream(repositories)
-                    .filter(repo -> !repo.fork())
-                    .map(repo -> {
-                        var branches = getRepositoryBranches(username, repo.name());
-                        return new RepositoryDto(
-                                repo.name(),
-                                repo.owner().login(),
-                                branches
-                        );
-                    })
-                    .collect(Collectors.toList());
-        } catch (HttpClientErrorException e) {
-            throw new GitHubApiException("Failed to retrieve repositories: " + e.getMessage(), e.getStatusCode().value());
-        } catch (Exception e) {
-            throw new GitHubApiException("Unexpected error while retrieving repositories: " + e.getMessage(), 500);
-        }
-    }
-    
-    private List<BranchDto> getRepositoryBranches(String username, String repoName) {
-        var url = baseUrl + "/repos/" + username + "/" + repoName + "/branches";
+        }
+        if (distinct.isEmpty()) {
+            return errorResponse(new GitHubApiException("No usernames given", 400));
+        }
+        if (distinct.size() > batchMaxUsernames) {
+            return errorResponse(new GitHubApiException("At most " + batchMaxUsernames + " usernames per batch", 400));
+        }
+        
+        if (!limiter.tryAcquire()) {
+            return errorResponse(new GitHubApiException("Too many requests in progress, retry later", 503));
+        }
+        
+        var pending = List.copyOf(distinct.values());
+        StreamingResponseBody body = out -> {
+            try {
+                writeBatch(out, pending);
+            } finally {
+                limiter.release(false);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    private void writeBatch(OutputStream out, List<String> pending) throws IOException {
+        var window = new Semaphore(batchMaxConcurrency);
+        var completed = new ExecutorCompletionService<BatchResultDto>(upstreamExecutor);
+        var futures = new ConcurrentLinkedQueue<Future<BatchResultDto>>();
+        
+        Future<?> submitter = upstreamExecutor.submit(() -> {
+            for (var username : pending) {
+                window.acquire();
+                futures.add(completed.submit(() -> batchResult(username)));
+            }
+            return null;
+        });
         
         try {
-            var branches = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .body(GitHubBranch[].class);
-            
-            if (branches == null) {
-                throw new GitHubApiException("Failed to retrieve branches for repository: " + repoName, 500);
+            for (var written = 0; written < pending.size(); written++) {
+                writeLine(out, completed.take().get());
+                window.release();
             }
-            
-            return Arrays.stream(branches)
-                    .map(branch -> new BranchDto(branch.name(), branch.commit().sha()))
-                    .collect(Collectors.toList());
-        } catch (HttpClientErrorException e) {
-            throw new GitHubApiException("Failed to retrieve branches: " + e.getMessage(), e.getStatusCode().value());
-        } catch (Exception e) {
-            throw new GitHubApiException("Unexpected error while retrieving branches: " + e.getMessage(), 500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing batch", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch entry failed", e.getCause());
+        } finally {
+            submitter.cancel(true);
+            futures.forEach(future -> future.cancel(true));
         }
     }
     
-    private boolean userExists(String username) {
-        var url = baseUrl + "/users/" + username;
-        
+    @SuppressWarnings("unchecked")
+    private BatchResultDto batchResult(String username) {
         try {
-            var response = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .toEntity(String.class);
-            return response.getStatusCode() == HttpStatus.OK;
-        } catch (HttpClientErrorException.NotFound e) {
-            return false;
-        } catch (Exception e) {
-            throw new GitHubApiException("Error checking if user exists: " + e.getMessage(), 500);
+            var response = userRepositories(username, false, Supplier::get);
+            if (response.getBody() instanceof ErrorResponseDto error) {
+                return new BatchResultDto(username, null, error);
+            }
+            if (response.getBody() instanceof EncodedRepositories hot) {
+                return new BatchResultDto(username, hot.repositories(), null);
+            }
+            return new BatchResultDto(username, (List<RepositoryDto>) response.getBody(), null);
+        } catch (RuntimeException e) {
+            var error = new GitHubApiException("Unexpected error while retrieving repositories: " + e.getMessage(), 500);
+            countError(error);
+            return new BatchResultDto(username, null, new ErrorResponseDto(error.getStatusCode(), error.getMessage()));
         }
     }
     
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+        out.flush();
+    }
+    
+    private void countError(GitHubApiException e) {
+        Counter.builder("github.api.errors")
+                .tag("status", String.valueOf(e.getStatusCode()))
+                .description("Requests answered with an ErrorResponseDto, by status code")
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    private void rememberUnknownUser(String key, GitHubApiException e) {
+        if (e.getStatusCode() == 404 && USER_NOT_FOUND.equals(e.getMessage())) {
+            unknownUsers.markUnknown(key);
+            snapshots.removeRepositories(key);
+        }
+    }
+    
+    private ResponseEntity<ErrorResponseDto> errorResponse(GitHubApiException e) {
+        countError(e);
+        var errorResponse = new ErrorResponseDto(
+                e.getStatusCode(),
+                e.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.valueOf(e.getStatusCode())).body(errorResponse);
+    }
+    
     public static class GitHubApiException extends RuntimeException {
         private final int statusCode;
         
@@ -130,4 +388,4 @@ public class GitHubApiService {
             return statusCode;
         }
     }
-} 
\ No newline at end of file
+}
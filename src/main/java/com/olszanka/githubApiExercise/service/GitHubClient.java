@@ -0,0 +1,240 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.Page;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.RepositoryPage;
+import com.olszanka.githubApiExercise.service.UpstreamScheduler.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+
+/**
+ * Thin wrapper around the {@link RestClient} for GitHub list endpoints. Follows the
+ * {@code Link} header so callers always see every page: the first page tells us the number
+ * of the last one, and all remaining pages are then requested at once. Pages are read by the
+ * {@link GitHubPageConverter} into one of its {@link Page} types.
+ */
+@Component
+public class GitHubClient {
+    
+    private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]*)>\\s*;\\s*rel=\"([^\"]*)\"");
+    
+    private final RestClient restClient;
+    private final ConditionalRequestCache responseCache;
+    private final UpstreamScheduler scheduler;
+    private final GitHubObservations observations;
+    private final UpstreamResilience resilience;
+    private final ExecutorService upstreamExecutor;
+    private final int pageSize;
+    private final int maxPages;
+    private final SingleFlight<String, ResponseEntity<?>> inFlightPages;
+    private final MeterRegistry meterRegistry;
+    
+    public GitHubClient(RestClient restClient,
+                        ConditionalRequestCache responseCache,
+                        UpstreamScheduler scheduler,
+                        GitHubObservations observations,
+                        UpstreamResilience resilience,
+                        ExecutorService upstreamExecutor,
+                        @Value("${github.api.pagination.page-size:100}") int pageSize,
+                        @Value("${github.api.pagination.max-pages:100}") int maxPages,
+                        @Value("${github.api.branch-fetch.timeout:10s}") Duration maxWait,
+                        MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.responseCache = responseCache;
+        this.scheduler = scheduler;
+        this.observations = observations;
+        this.resilience = resilience;
+        this.upstreamExecutor = upstreamExecutor;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.inFlightPages = new SingleFlight<>("url", maxWait, meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Reads every page of a GitHub list endpoint and returns the items in page order. Every
+     * page request goes through the {@link UpstreamScheduler} with the given priority.
+     * HTTP errors are propagated as thrown by the {@link RestClient}. A list longer than
+     * {@code maxPages} fails with a 502 rather than being cut short silently.
+     */
+    public <T, P extends Page<T>> List<T> getAllPages(String url, Class<P> type, Priority priority) {
+        var firstPageUrl = UriComponentsBuilder.fromUriString(url)
+                .replaceQueryParam("per_page", pageSize)
+                .toUriString();
+        var firstPage = getPage(firstPageUrl, type, priority);
+        var items = new ArrayList<T>(body(firstPage, firstPageUrl).items());
+        
+        var links = parseLinks(firstPage.getHeaders().getFirst(HttpHeaders.LINK));
+        if (links.last() != null) {
+            items.addAll(getRemainingPages(url, links.last(), type, priority));
+        } else {
+            // No "last" relation: follow "next" one page at a time.
+            var next = links.next();
+            for (var page = 2; next != null && page <= maxPages; page++) {
+                var response = getPage(next, type, priority);
+                items.addAll(body(response, next).items());
+                next = parseLinks(response.getHeaders().getFirst(HttpHeaders.LINK)).next();
+            }
+            if (next != null) {
+                throw tooManyPages(url, type);
+            }
+        }
+        return items;
+    }
+    
+    private <T, P extends Page<T>> List<T> getRemainingPages(String url, String lastPageUrl, Class<P> type, Priority priority) {
+        var lastPage = pageNumber(lastPageUrl);
+        if (lastPage < 2) {
+            return List.of();
+        }
+        if (lastPage > maxPages) {
+            throw tooManyPages(url, type);
+        }
+        
+        var pages = new ArrayList<CompletableFuture<P>>(lastPage - 1);
+        for (var page = 2; page <= lastPage; page++) {
+            var pageUrl = UriComponentsBuilder.fromUriString(lastPageUrl)
+                    .replaceQueryParam("page", page)
+                    .toUriString();
+            pages.add(CompletableFuture.supplyAsync(() -> body(getPage(pageUrl, type, priority), pageUrl), upstreamExecutor));
+        }
+        
+        try {
+            var items = new ArrayList<T>(pages.size() * pageSize);
+            for (var page : pages) {
+                items.addAll(page.join().items());
+            }
+            return items;
+        } catch (CompletionException | CancellationException e) {
+            pages.forEach(page -> page.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Requests one page. Concurrent requests for the same URL share a single upstream call.
+     */
+    @SuppressWarnings("unchecked")
+    private <P> ResponseEntity<P> getPage(String url, Class<P> type, Priority priority) {
+        return (ResponseEntity<P>) inFlightPages.execute(url, () -> fetchPage(url, type, priority));
+    }
+    
+    /**
+     * Requests one page, revalidating against the {@link ConditionalRequestCache} when it
+     * holds an entry for the URL. A 304 is turned back into a 200 carrying the cached body and
+     * {@code Link} header so pagination works the same either way.
+     */
+    @SuppressWarnings("unchecked")
+    private <P> ResponseEntity<P> fetchPage(String url, Class<P> type, Priority priority) {
+        var cached = responseCache.get(url);
+        var request = restClient.get().uri(url).headers(headers -> {
+            if (cached == null) {
+                return;
+            }
+            if (cached.etag() != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+            } else {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+            }
+        });
+        
+        var endpoint = endpoint(type);
+        var response = resilience.execute(endpoint, () -> scheduler.execute(priority, () -> resilience.hedge(endpoint, scheduler::tryAcquire,
+                () -> observations.upstream(endpoint, () -> request.retrieve().toEntity(type)))));
+        
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            responseCache.markNotModified(url, cached);
+            var headers = new HttpHeaders();
+            if (cached.link() != null) {
+                headers.set(HttpHeaders.LINK, cached.link());
+            }
+            return new ResponseEntity<>((P) cached.body(), headers, HttpStatus.OK);
+        }
+        
+        if (response.getBody() != null) {
+            var headers = response.getHeaders();
+            responseCache.put(url,
+                    headers.getETag(),
+                    headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                    headers.getFirst(HttpHeaders.LINK),
+                    response.getBody());
+        }
+        return response;
+    }
+    
+    private GitHubApiException tooManyPages(String url, Class<?> type) {
+        return tooManyPages(url, endpoint(type), maxPages, meterRegistry);
+    }
+    
+    /**
+     * Counts a list refused for having more than {@code maxPages} pages and returns the 502 to
+     * fail it with.
+     */
+    static GitHubApiException tooManyPages(String url, String endpoint, int maxPages, MeterRegistry meterRegistry) {
+        Counter.builder("github.pagination.max.pages.exceeded")
+                .tag("endpoint", endpoint)
+                .description("List requests refused because they had more than max-pages pages")
+                .register(meterRegistry)
+                .increment();
+        return new GitHubApiException("More than " + maxPages + " pages at " + url
+                + "; raise github.api.pagination.max-pages to read it", 502);
+    }
+    
+    private static String endpoint(Class<?> type) {
+        return type == RepositoryPage.class ? "repos" : "branches";
+    }
+    
+    private static <P> P body(ResponseEntity<P> response, String url) {
+        var body = response.getBody();
+        if (body == null) {
+            throw new GitHubApiException("Empty response body from: " + url, 500);
+        }
+        return body;
+    }
+    
+    static Links parseLinks(String header) {
+        String next = null;
+        String last = null;
+        if (header != null) {
+            var matcher = LINK_PATTERN.matcher(header);
+            while (matcher.find()) {
+                switch (matcher.group(2)) {
+                    case "next" -> next = matcher.group(1);
+                    case "last" -> last = matcher.group(1);
+                    default -> { }
+                }
+            }
+        }
+        return new Links(next, last);
+    }
+    
+    static int pageNumber(String url) {
+        var page = UriComponentsBuilder.fromUriString(url).build().getQueryParams().getFirst("page");
+        try {
+            return page == null ? 1 : Integer.parseInt(page);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+    
+    record Links(String next, String last) {}
+}
@@ -0,0 +1,60 @@
+package com.olszanka.githubApiExercise.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.function.Supplier;
+
+/**
+ * Micrometer observations for the request pipeline. Each observation yields a timer (with the
+ * percentiles configured under {@code management.metrics.distribution}) and, with tracing on
+ * the classpath, a span nested under the incoming request's span.
+ * <ul>
+ *   <li>{@code github.upstream} - one per upstream HTTP call, tagged {@code endpoint}
+ *   ({@code repos}, {@code branches}, {@code graphql}) and {@code status}.</li>
+ *   <li>{@code github.request.phase} - time spent per pipeline phase, tagged {@code phase}
+ *   ({@code repositories}, {@code branches}, {@code serialization}).</li>
+ * </ul>
+ */
+@Component
+public class GitHubObservations {
+    
+    private final ObservationRegistry observationRegistry;
+    
+    public GitHubObservations(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+    
+    public <T> ResponseEntity<T> upstream(String endpoint, Supplier<ResponseEntity<T>> call) {
+        var observation = Observation.createNotStarted("github.upstream", observationRegistry)
+                .contextualName("github " + endpoint)
+                .lowCardinalityKeyValue("endpoint", endpoint)
+                .start();
+        try (var scope = observation.openScope()) {
+            var response = call.get();
+            observation.lowCardinalityKeyValue("status", String.valueOf(response.getStatusCode().value()));
+            return response;
+        } catch (RestClientResponseException e) {
+            observation.lowCardinalityKeyValue("status", String.valueOf(e.getStatusCode().value()));
+            observation.error(e);
+            throw e;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("status", "IO_ERROR");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+    
+    public <T> T phase(String phase, Supplier<T> work) {
+        return Observation.createNotStarted("github.request.phase", observationRegistry)
+                .contextualName("github " + phase)
+                .lowCardinalityKeyValue("phase", phase)
+                .observe(work);
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.model.GitHubOwner;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads GitHub list pages with a streaming {@link JsonParser} instead of data binding.
+ * A repository object is several kilobytes of URLs and counters of which only {@code name},
+ * {@code owner.login}, {@code fork} and {@code pushed_at} are used, so everything else is
+ * skipped token by token without being materialized. Forks are dropped while parsing, and
+ * branches come out directly as {@link BranchDto}s.
+ */
+public class GitHubPageConverter extends AbstractHttpMessageConverter<GitHubPageConverter.Page<?>> {
+    
+    /**
+     * One parsed page of a GitHub list endpoint.
+     */
+    public interface Page<T> {
+        List<T> items();
+    }
+    
+    /** Non-fork repositories of a {@code /users/{username}/repos} page. */
+    public record RepositoryPage(List<GitHubRepository> items) implements Page<GitHubRepository> {}
+    
+    /** Branches of a {@code /repos/{owner}/{repo}/branches} page. */
+    public record BranchPage(List<BranchDto> items) implements Page<BranchDto> {}
+    
+    private final JsonFactory jsonFactory;
+    
+    public GitHubPageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = jsonFactory;
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == RepositoryPage.class || clazz == BranchPage.class;
+    }
+    
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    protected Page<?> readInternal(Class<? extends Page<?>> clazz, HttpInputMessage inputMessage) throws IOException {
+        try (var parser = jsonFactory.createParser(inputMessage.getBody())) {
+            return clazz == RepositoryPage.class
+                    ? new RepositoryPage(readRepositories(parser))
+                    : new BranchPage(readBranches(parser));
+        } catch (IllegalStateException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+    
+    @Override
+    protected void writeInternal(Page<?> page, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("GitHub pages are read-only");
+    }
+    
+    static List<GitHubRepository> readRepositories(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_ARRAY);
+        var repositories = new ArrayList<GitHubRepository>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            String ownerLogin = null;
+            var fork = false;
+            String pushedAt = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                var value = parser.nextToken();
+                switch (field) {
+                    case "name" -> name = parser.getValueAsString();
+                    case "fork" -> fork = value == JsonToken.VALUE_TRUE;
+                    case "owner" -> ownerLogin = readField(parser, value, "login");
+                    case "pushed_at" -> pushedAt = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (!fork) {
+                repositories.add(new GitHubRepository(name, new GitHubOwner(ownerLogin), false, pushedAt));
+            }
+        }
+        return repositories;
+    }
+    
+    static List<BranchDto> readBranches(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_ARRAY);
+        var branches = new ArrayList<BranchDto>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            String sha = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                var value = parser.nextToken();
+                switch (field) {
+                    case "name" -> name = parser.getValueAsString();
+                    case "commit" -> sha = readField(parser, value, "sha");
+                    default -> parser.skipChildren();
+                }
+            }
+            branches.add(new BranchDto(name, sha));
+        }
+        return branches;
+    }
+    
+    /**
+     * Returns one string field of the object the parser is positioned on, skipping the rest.
+     */
+    private static String readField(JsonParser parser, JsonToken value, String wanted) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            parser.nextToken();
+            if (wanted.equals(field)) {
+                result = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+    
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new IllegalStateException("Expected " + expected + " but found " + actual);
+        }
+    }
+}
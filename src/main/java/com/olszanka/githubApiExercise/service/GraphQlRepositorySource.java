@@ -0,0 +1,212 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import com.olszanka.githubApiExercise.service.UpstreamScheduler.Priority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.olszanka.githubApiExercise.service.GitHubApiService.USER_NOT_FOUND;
+
+/**
+ * GraphQL v4 backend: non-fork repositories and their branch heads come back together, a page
+ * of repositories per query, so a user costs one call per {@code repositoriesPerQuery}
+ * repositories instead of one call per repository. Only repositories with more than
+ * {@code branchesPerRepository} branches need follow-up queries for the remaining refs.
+ * GitHub requires a token ({@code github.api.token}) for this API. Only public repositories are
+ * listed, as on {@code /users/{username}/repos}, even when the token could see private ones.
+ */
+@Component
+@ConditionalOnProperty(name = "github.api.backend", havingValue = "graphql")
+public class GraphQlRepositorySource implements RepositorySource {
+    
+    private static final String REPOSITORIES_QUERY = """
+            query($login: String!, $cursor: String, $repositories: Int!, $branches: Int!) {
+              repositoryOwner(login: $login) {
+                repositories(first: $repositories, after: $cursor, isFork: false, ownerAffiliations: OWNER,
+                             privacy: PUBLIC, orderBy: {field: NAME, direction: ASC}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes {
+                    name
+                    owner { login }
+                    refs(refPrefix: "refs/heads/", first: $branches, orderBy: {field: ALPHABETICAL, direction: ASC}) {
+                      pageInfo { hasNextPage endCursor }
+                      nodes { name target { oid } }
+                    }
+                  }
+                }
+              }
+            }
+            """;
+    
+    private static final String BRANCHES_QUERY = """
+            query($owner: String!, $name: String!, $cursor: String, $branches: Int!) {
+              repository(owner: $owner, name: $name) {
+                refs(refPrefix: "refs/heads/", first: $branches, after: $cursor, orderBy: {field: ALPHABETICAL, direction: ASC}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { name target { oid } }
+                }
+              }
+            }
+            """;
+    
+    private final RestClient restClient;
+    private final UpstreamScheduler scheduler;
+    private final GitHubObservations observations;
+    private final UpstreamResilience resilience;
+    private final String graphQlUrl;
+    private final int repositoriesPerQuery;
+    private final int branchesPerRepository;
+    
+    public GraphQlRepositorySource(RestClient restClient,
+                                   UpstreamScheduler scheduler,
+                                   GitHubObservations observations,
+                                   UpstreamResilience resilience,
+                                   @Value("${github.api.graphql-url:${github.api.base-url}/graphql}") String graphQlUrl,
+                                   @Value("${github.api.graphql.repositories-per-query:50}") int repositoriesPerQuery,
+                                   @Value("${github.api.graphql.branches-per-repository:100}") int branchesPerRepository) {
+        this.restClient = restClient;
+        this.scheduler = scheduler;
+        this.observations = observations;
+        this.resilience = resilience;
+        this.graphQlUrl = graphQlUrl;
+        this.repositoriesPerQuery = repositoriesPerQuery;
+        this.branchesPerRepository = branchesPerRepository;
+    }
+    
+    @Override
+    public List<RepositoryDto> getRepositories(String username) {
+        return observations.phase("repositories", () -> fetchAllRepositories(username));
+    }
+    
+    private List<RepositoryDto> fetchAllRepositories(String username) {
+        var result = new ArrayList<RepositoryDto>();
+        var page = fetchRepositoryPage(username, null);
+        result.addAll(page.repositories());
+        while (page.nextCursor() != null) {
+            page = fetchRepositoryPage(username, page.nextCursor());
+            result.addAll(page.repositories());
+        }
+        return result;
+    }
+    
+    @Override
+    public RepositoryStream openStream(String username) {
+        var firstPage = fetchRepositoryPage(username, null);
+        return writer -> {
+            var page = firstPage;
+            while (true) {
+                for (var repository : page.repositories()) {
+                    writer.write(repository);
+                }
+                if (page.nextCursor() == null) {
+                    return;
+                }
+                page = fetchRepositoryPage(username, page.nextCursor());
+            }
+        };
+    }
+    
+    private RepositoryPage fetchRepositoryPage(String username, String cursor) {
+        var variables = new HashMap<String, Object>();
+        variables.put("login", username);
+        variables.put("cursor", cursor);
+        variables.put("repositories", repositoriesPerQuery);
+        variables.put("branches", branchesPerRepository);
+        
+        var owner = execute(REPOSITORIES_QUERY, variables).path("repositoryOwner");
+        if (owner.isMissingNode() || owner.isNull()) {
+            throw new GitHubApiException(USER_NOT_FOUND, 404);
+        }
+        
+        var connection = owner.path("repositories");
+        var repositories = new ArrayList<RepositoryDto>();
+        for (var node : connection.path("nodes")) {
+            var ownerLogin = node.path("owner").path("login").asText();
+            var name = node.path("name").asText();
+            var branches = readBranches(node.path("refs"));
+            var refsPage = node.path("refs").path("pageInfo");
+            if (refsPage.path("hasNextPage").asBoolean()) {
+                branches.addAll(fetchRemainingBranches(ownerLogin, name, refsPage.path("endCursor").asText()));
+            }
+            repositories.add(new RepositoryDto(name, ownerLogin, branches));
+        }
+        
+        var pageInfo = connection.path("pageInfo");
+        var nextCursor = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText() : null;
+        return new RepositoryPage(repositories, nextCursor);
+    }
+    
+    private List<BranchDto> fetchRemainingBranches(String owner, String name, String cursor) {
+        var branches = new ArrayList<BranchDto>();
+        while (cursor != null) {
+            var variables = new HashMap<String, Object>();
+            variables.put("owner", owner);
+            variables.put("name", name);
+            variables.put("cursor", cursor);
+            variables.put("branches", branchesPerRepository);
+            
+            var refs = execute(BRANCHES_QUERY, variables).path("repository").path("refs");
+            branches.addAll(readBranches(refs));
+            var pageInfo = refs.path("pageInfo");
+            cursor = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText() : null;
+        }
+        return branches;
+    }
+    
+    private static List<BranchDto> readBranches(JsonNode refs) {
+        var branches = new ArrayList<BranchDto>();
+        for (var ref : refs.path("nodes")) {
+            branches.add(new BranchDto(ref.path("name").asText(), ref.path("target").path("oid").asText()));
+        }
+        return branches;
+    }
+    
+    /**
+     * Posts the query and returns its {@code data} node. GraphQL reports failures with a 200 and
+     * an {@code errors} array; {@code NOT_FOUND} errors are left to the caller, which sees the
+     * corresponding field as {@code null}.
+     */
+    private JsonNode execute(String query, Map<String, Object> variables) {
+        JsonNode response;
+        try {
+            // GraphQL queries are reads, so the POST is as safe to retry and hedge as a GET.
+            response = resilience.execute("graphql", () -> scheduler.execute(Priority.LISTING, () -> resilience.hedge("graphql",
+                    scheduler::tryAcquire, () -> observations.upstream("graphql", () -> restClient.post()
+                            .uri(graphQlUrl)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(Map.of("query", query, "variables", variables))
+                            .retrieve()
+                            .toEntity(JsonNode.class))))).getBody();
+        } catch (GitHubApiException e) {
+            throw e;
+        } catch (HttpClientErrorException e) {
+            throw new GitHubApiException("Failed to query GitHub GraphQL API: " + e.getMessage(), e.getStatusCode().value());
+        } catch (Exception e) {
+            throw new GitHubApiException("Unexpected error while querying GitHub GraphQL API: " + e.getMessage(), 500);
+        }
+        
+        if (response == null) {
+            throw new GitHubApiException("Empty response body from: " + graphQlUrl, 500);
+        }
+        for (var error : response.path("errors")) {
+            if (!"NOT_FOUND".equals(error.path("type").asText())) {
+                throw new GitHubApiException("GitHub GraphQL API error: " + error.path("message").asText(), 502);
+            }
+        }
+        return response.path("data");
+    }
+    
+    private record RepositoryPage(List<RepositoryDto> repositories, String nextCursor) {}
+}
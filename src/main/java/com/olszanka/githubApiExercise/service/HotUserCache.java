@@ -0,0 +1,191 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Request frequency per username and in-memory results for the most requested ones.
+ * <p>
+ * Frequencies are kept with the Space-Saving heavy-hitters algorithm: at most
+ * {@code 4 * topK} usernames are counted, and a new username takes over the counter of the
+ * least frequent one, inheriting its count. Any username with more than {@code 1/(4 * topK)}
+ * of the traffic is guaranteed to be tracked. Counts are also kept ordered, so finding the
+ * least frequent one is logarithmic. Counts are halved on every {@link #decay()}, so hotness
+ * follows recent traffic.
+ * <p>
+ * Only users among the {@code topK} hottest with at least {@code minRequests} counted requests
+ * have their results kept, in {@link ResultCompactor}'s compact form; {@link HotUserRefresher}
+ * renews them before they expire. That hot set is recomputed on every decay; in between, a
+ * user reaching {@code minRequests} joins it while it has room, so storing a result is a set
+ * lookup rather than a ranking.
+ */
+@Component
+public class HotUserCache {
+    
+    private final boolean enabled;
+    private final int topK;
+    private final int capacity;
+    private final long minRequests;
+    private final long ttlNanos;
+    private final Map<String, Tracked> counts = new HashMap<>();
+    private final NavigableSet<Tracked> byCount = new TreeSet<>(
+            Comparator.comparingLong(Tracked::count).thenComparing(Tracked::username));
+    private final Set<String> hot = ConcurrentHashMap.newKeySet();
+    private final Map<String, Entry> results = new ConcurrentHashMap<>();
+    private final ResultCompactor compactor;
+    
+    private final Counter hits;
+    
+    public HotUserCache(@Value("${github.api.hot-users.enabled:true}") boolean enabled,
+                        @Value("${github.api.hot-users.top-k:100}") int topK,
+                        @Value("${github.api.hot-users.min-requests:10}") long minRequests,
+                        @Value("${github.api.hot-users.ttl:5m}") Duration ttl,
+                        ResultCompactor compactor,
+                        MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.topK = topK;
+        this.capacity = topK * 4;
+        this.minRequests = minRequests;
+        this.ttlNanos = ttl.toNanos();
+        this.compactor = compactor;
+        
+        this.hits = Counter.builder("github.hotusers.hits")
+                .description("Requests answered from the in-memory results of hot users").register(meterRegistry);
+        Gauge.builder("github.hotusers.cached", results, Map::size)
+                .description("Hot users with a result held in memory").register(meterRegistry);
+    }
+    
+    public void recordRequest(String username) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (counts) {
+            var tracked = counts.get(username);
+            long count;
+            if (tracked != null) {
+                byCount.remove(tracked);
+                count = tracked.count() + 1;
+            } else if (counts.size() < capacity) {
+                count = 1;
+            } else {
+                var least = byCount.pollFirst();
+                counts.remove(least.username());
+                hot.remove(least.username());
+                results.remove(least.username());
+                count = least.count() + 1;
+            }
+            track(new Tracked(username, count));
+            if (count >= minRequests && hot.size() < topK) {
+                hot.add(username);
+            }
+        }
+    }
+    
+    /**
+     * Returns the held result of a hot user, or {@code null} when there is none or it expired.
+     * The result keeps its serialized forms until it is replaced.
+     */
+    public Entry get(String username) {
+        var entry = results.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.storedAtNanos() > ttlNanos) {
+            results.remove(username, entry);
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+    
+    /**
+     * Holds the result if the user is currently hot; other results are not kept. The result is
+     * dropped when {@code unchanged} no longer holds as it is stored, which is checked
+     * atomically with {@link #update}.
+     */
+    public void put(String username, List<RepositoryDto> repositories, BooleanSupplier unchanged) {
+        if (!enabled || !hot.contains(username)) {
+            return;
+        }
+        var entry = new Entry(new EncodedRepositories(compactor.repositories(repositories)), System.nanoTime());
+        results.compute(username, (key, current) -> unchanged.getAsBoolean() ? entry : current);
+    }
+    
+    /**
+     * Applies a change to the held result, keeping its age; an update returning {@code null}
+     * drops the result instead.
+     */
+    public void update(String username, UnaryOperator<List<RepositoryDto>> update) {
+        results.computeIfPresent(username, (key, entry) -> {
+            var repositories = update.apply(entry.result().repositories());
+            return repositories == null ? null
+                    : new Entry(new EncodedRepositories(compactor.repositories(repositories)), entry.storedAtNanos());
+        });
+    }
+    
+    /**
+     * The hottest usernames, most requested first, at most {@code topK} of them.
+     */
+    public List<String> hottest() {
+        synchronized (counts) {
+            return byCount.descendingSet().stream()
+                    .takeWhile(tracked -> tracked.count() >= minRequests)
+                    .limit(topK)
+                    .map(Tracked::username)
+                    .toList();
+        }
+    }
+    
+    /**
+     * Age of the held result in nanoseconds, or {@link Long#MAX_VALUE} when there is none.
+     */
+    public long ageNanos(String username) {
+        var entry = results.get(username);
+        return entry == null ? Long.MAX_VALUE : System.nanoTime() - entry.storedAtNanos();
+    }
+    
+    /**
+     * Halves every count, recomputes the hot set and drops the results of users that are no
+     * longer hot.
+     */
+    public void decay() {
+        synchronized (counts) {
+            var decayed = counts.values().stream()
+                    .map(tracked -> new Tracked(tracked.username(), tracked.count() / 2))
+                    .filter(tracked -> tracked.count() > 0)
+                    .toList();
+            counts.clear();
+            byCount.clear();
+            decayed.forEach(this::track);
+            var hottest = hottest();
+            hot.retainAll(hottest);
+            hot.addAll(hottest);
+        }
+        results.keySet().removeIf(username -> !hot.contains(username));
+    }
+    
+    private void track(Tracked tracked) {
+        counts.put(tracked.username(), tracked);
+        byCount.add(tracked);
+    }
+    
+    public record Entry(EncodedRepositories result, long storedAtNanos) {}
+    
+    private record Tracked(String username, long count) {}
+}
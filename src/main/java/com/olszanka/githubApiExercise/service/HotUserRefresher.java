@@ -0,0 +1,126 @@
+package com.olszanka.githubApiExercise.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renews the in-memory results of the hottest users before they expire, so their requests
+ * never wait on GitHub.
+ * <p>
+ * Every {@code interval} the refresher walks the hot users, most requested first, and
+ * refreshes those whose result is older than {@code refresh-after}. Each cycle may spend
+ * {@code budget-share} of the remaining rate-limit budget divided over the cycles left until
+ * the limit resets, so refreshes are spread evenly and never eat the budget live requests
+ * need. Cost is measured from the budget GitHub reports, so 304s and reused branches are free.
+ * While the budget is unknown {@code max-refreshes-per-cycle} users are refreshed per cycle.
+ */
+@Component
+public class HotUserRefresher implements AutoCloseable {
+    
+    private final HotUserCache hotUsers;
+    private final GitHubApiService gitHubApiService;
+    private final UpstreamScheduler scheduler;
+    private final long intervalMillis;
+    private final long refreshAfterNanos;
+    private final double budgetShare;
+    private final int maxRefreshesPerCycle;
+    private final int decayEveryCycles;
+    private final ScheduledExecutorService timer;
+    
+    private final Counter refreshes;
+    private int cycles;
+    private double credit;
+    
+    public HotUserRefresher(HotUserCache hotUsers,
+                            GitHubApiService gitHubApiService,
+                            UpstreamScheduler scheduler,
+                            @Value("${github.api.hot-users.enabled:true}") boolean enabled,
+                            @Value("${github.api.hot-users.interval:5s}") Duration interval,
+                            @Value("${github.api.hot-users.refresh-after:3m}") Duration refreshAfter,
+                            @Value("${github.api.hot-users.budget-share:0.2}") double budgetShare,
+                            @Value("${github.api.hot-users.max-refreshes-per-cycle:5}") int maxRefreshesPerCycle,
+                            @Value("${github.api.hot-users.decay-interval:1m}") Duration decayInterval,
+                            MeterRegistry meterRegistry) {
+        this.hotUsers = hotUsers;
+        this.gitHubApiService = gitHubApiService;
+        this.scheduler = scheduler;
+        this.intervalMillis = interval.toMillis();
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.budgetShare = budgetShare;
+        this.maxRefreshesPerCycle = maxRefreshesPerCycle;
+        this.decayEveryCycles = (int) Math.max(1, decayInterval.toMillis() / intervalMillis);
+        
+        this.refreshes = Counter.builder("github.hotusers.refreshes")
+                .description("Background refreshes of hot users").register(meterRegistry);
+        
+        if (!enabled) {
+            this.timer = null;
+            return;
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("hot-user-refresher").daemon().factory());
+        timer.scheduleWithFixedDelay(this::cycle, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+    
+    private void cycle() {
+        try {
+            if (++cycles % decayEveryCycles == 0) {
+                hotUsers.decay();
+            }
+            refreshHotUsers();
+        } catch (RuntimeException e) {
+            // A failed cycle must not cancel the schedule; the next one tries again.
+        }
+    }
+    
+    /**
+     * Spends this cycle's allowance, plus whatever is left over from quiet cycles up to one
+     * cycle's worth, so allowances below one call still add up to a refresh now and then.
+     */
+    private void refreshHotUsers() {
+        var allowance = allowance();
+        credit = Math.min(credit + allowance, Math.max(1, allowance));
+        for (var username : hotUsers.hottest()) {
+            if (credit < 1) {
+                return;
+            }
+            if (hotUsers.ageNanos(username) < refreshAfterNanos) {
+                continue;
+            }
+            var before = scheduler.budget().remaining();
+            gitHubApiService.refreshHotUser(username);
+            refreshes.increment();
+            var after = scheduler.budget().remaining();
+            // Without a known budget every refresh counts as one call.
+            credit -= before >= 0 && after >= 0 ? Math.max(0, before - after) : 1;
+        }
+    }
+    
+    /**
+     * Calls this cycle may spend: the configured share of the remaining budget, spread over
+     * the cycles left until the limit resets.
+     */
+    private double allowance() {
+        var budget = scheduler.budget();
+        if (budget.remaining() < 0 || Instant.now().isAfter(budget.reset())) {
+            return maxRefreshesPerCycle;
+        }
+        var untilResetMillis = Math.max(intervalMillis, Duration.between(Instant.now(), budget.reset()).toMillis());
+        var cyclesLeft = (double) untilResetMillis / intervalMillis;
+        return budget.remaining() * budgetShare / cyclesLeft;
+    }
+}
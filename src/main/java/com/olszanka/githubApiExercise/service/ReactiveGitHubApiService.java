@@ -0,0 +1,255 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+
+import static com.olszanka.githubApiExercise.service.GitHubApiService.USER_NOT_FOUND;
+
+/**
+ * Non-blocking counterpart of {@link GitHubApiService} for the {@code reactive} profile. The
+ * whole chain runs on {@link WebClient} event loops: pages are read through their {@code Link}
+ * header, all at once when the first page names the last one, branches are fetched with at
+ * most {@code branchFetchMaxConcurrency} requests in flight per user, and a slow HTTP client
+ * slows down the fan-out through backpressure instead of buffering results. A list longer than
+ * {@code maxPages} fails with a 502, as on the blocking stack.
+ * <p>
+ * Upstream calls get the retries and circuit breaker of {@link UpstreamResilience}, and the
+ * unknown-user and incremental branch caches are shared with the blocking stack. None of the
+ * following is applied here: coalescing of identical requests, the hot-user cache, the
+ * concurrency limiter, hedging, the rate-limit scheduler, the conditional request cache and
+ * snapshots.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveGitHubApiService {
+    
+    private final WebClient webClient;
+    private final JsonFactory jsonFactory;
+    private final UnknownUserCache unknownUsers;
+    private final RepositoryBranchCache branchCache;
+    private final UpstreamResilience resilience;
+    private final String baseUrl;
+    private final int pageSize;
+    private final int maxPages;
+    private final int branchFetchMaxConcurrency;
+    private final Duration branchFetchTimeout;
+    private final Duration partialDeadline;
+    private final MeterRegistry meterRegistry;
+    
+    public ReactiveGitHubApiService(WebClient gitHubWebClient,
+                                    ObjectMapper objectMapper,
+                                    UnknownUserCache unknownUsers,
+                                    RepositoryBranchCache branchCache,
+                                    UpstreamResilience resilience,
+                                    @Value("${github.api.base-url}") String baseUrl,
+                                    @Value("${github.api.pagination.page-size:100}") int pageSize,
+                                    @Value("${github.api.pagination.max-pages:100}") int maxPages,
+                                    @Value("${github.api.branch-fetch.max-concurrency:16}") int branchFetchMaxConcurrency,
+                                    @Value("${github.api.branch-fetch.timeout:10s}") Duration branchFetchTimeout,
+                                    @Value("${github.api.partial-results.deadline:3s}") Duration partialDeadline,
+                                    MeterRegistry meterRegistry) {
+        this.webClient = gitHubWebClient;
+        this.jsonFactory = objectMapper.getFactory();
+        this.unknownUsers = unknownUsers;
+        this.branchCache = branchCache;
+        this.resilience = resilience;
+        this.baseUrl = baseUrl;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.branchFetchMaxConcurrency = branchFetchMaxConcurrency;
+        this.branchFetchTimeout = branchFetchTimeout;
+        this.partialDeadline = partialDeadline;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * All non-fork repositories of the user with their branches, in repository order.
+     */
+    public Mono<List<RepositoryDto>> getUserRepositories(String username) {
+        return openStream(username, true).flatMap(Flux::collectList);
+    }
+    
+    /**
+     * Partial-result mode, as on the blocking stack: answered within {@code partialDeadline},
+     * with repositories whose branches failed or did not arrive in time marked incomplete.
+     */
+    public Mono<List<RepositoryDto>> getPartialUserRepositories(String username) {
+        return Mono.defer(() -> {
+            var deadline = System.nanoTime() + partialDeadline.toNanos();
+            return listRepositories(username)
+                    .timeout(remaining(deadline), Mono.error(() ->
+                            new GitHubApiException("Timed out while retrieving repositories for user: " + username, 504)))
+                    .flatMap(repositories -> Flux.fromIterable(repositories)
+                            .flatMapSequential(repo -> Mono.defer(() -> toRepositoryDto(username, repo).timeout(remaining(deadline)))
+                                    .onErrorResume(e -> Mono.just(RestRepositorySource.incompleteRepositoryDto(repo,
+                                            e instanceof TimeoutException ? "Timed out while retrieving branches" : e.getMessage()))),
+                                    branchFetchMaxConcurrency)
+                            .collectList());
+        });
+    }
+    
+    /**
+     * Lists the user's repositories and returns the branch fan-out over them, not yet
+     * subscribed. The outer {@link Mono} fails on errors that must change the response status,
+     * such as an unknown user; the inner {@link Flux} fails on errors after that. With
+     * {@code ordered} unset, repositories are emitted as soon as their branches arrive.
+     */
+    public Mono<Flux<RepositoryDto>> openStream(String username, boolean ordered) {
+        return listRepositories(username)
+                .map(repositories -> withDeadline(username, ordered
+                        ? Flux.fromIterable(repositories).flatMapSequential(repo -> toRepositoryDto(username, repo), branchFetchMaxConcurrency)
+                        : Flux.fromIterable(repositories).flatMap(repo -> toRepositoryDto(username, repo), branchFetchMaxConcurrency)));
+    }
+    
+    /**
+     * The user's repositories, answering known-unknown users from the cache and remembering
+     * new ones.
+     */
+    private Mono<List<GitHubRepository>> listRepositories(String username) {
+        var key = username.toLowerCase(Locale.ROOT);
+        if (unknownUsers.isUnknown(key)) {
+            return Mono.error(new GitHubApiException(USER_NOT_FOUND, 404));
+        }
+        return getOwnRepositories(username)
+                .doOnError(GitHubApiException.class, e -> {
+                    if (e.getStatusCode() == 404 && USER_NOT_FOUND.equals(e.getMessage())) {
+                        unknownUsers.markUnknown(key);
+                    }
+                });
+    }
+    
+    private static Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+    }
+    
+    private Mono<List<GitHubRepository>> getOwnRepositories(String username) {
+        var url = baseUrl + "/users/" + username + "/repos";
+        return getAllPages(url, "repos", GitHubPageConverter::readRepositories)
+                .onErrorMap(e -> !(e instanceof GitHubApiException), e -> switch (e) {
+                    case WebClientResponseException.NotFound notFound -> new GitHubApiException(USER_NOT_FOUND, 404);
+                    case WebClientResponseException response -> new GitHubApiException(
+                            "Failed to retrieve repositories: " + response.getMessage(), response.getStatusCode().value());
+                    default -> new GitHubApiException("Unexpected error while retrieving repositories: " + e.getMessage(), 500);
+                });
+    }
+    
+    private Mono<RepositoryDto> toRepositoryDto(String username, GitHubRepository repo) {
+        var cached = branchCache.get(repo);
+        if (cached != null) {
+            return Mono.just(RestRepositorySource.toRepositoryDto(repo, cached));
+        }
+        var url = baseUrl + "/repos/" + username + "/" + repo.name() + "/branches";
+        return getAllPages(url, "branches", GitHubPageConverter::readBranches)
+                .onErrorMap(e -> !(e instanceof GitHubApiException), e -> e instanceof WebClientResponseException response
+                        ? new GitHubApiException("Failed to retrieve branches: " + response.getMessage(), response.getStatusCode().value())
+                        : new GitHubApiException("Unexpected error while retrieving branches: " + e.getMessage(), 500))
+                .doOnNext(branches -> branchCache.put(repo, branches))
+                .map(branches -> RestRepositorySource.toRepositoryDto(repo, branches));
+    }
+    
+    /**
+     * Applies one deadline to the whole fan-out, like the blocking stack: every element may
+     * only take as long as is left of it.
+     */
+    private Flux<RepositoryDto> withDeadline(String username, Flux<RepositoryDto> repositories) {
+        return Flux.defer(() -> {
+            var deadline = System.nanoTime() + branchFetchTimeout.toNanos();
+            var timeout = Mono.defer(() -> Mono.delay(Duration.ofNanos(Math.max(0, deadline - System.nanoTime()))));
+            return repositories.timeout(timeout, repository -> timeout, Flux.error(() ->
+                    new GitHubApiException("Timed out while retrieving branches for user: " + username, 504)));
+        });
+    }
+    
+    /**
+     * Reads every page of a list, like {@link GitHubClient#getAllPages}: when the first page
+     * names the last one, all remaining pages are requested at once; otherwise {@code rel="next"}
+     * links are followed one page after another. More than {@code maxPages} pages fail with a 502.
+     */
+    private <T> Mono<List<T>> getAllPages(String url, String endpoint, PageReader<T> reader) {
+        var firstPageUrl = UriComponentsBuilder.fromUriString(url)
+                .replaceQueryParam("per_page", pageSize)
+                .toUriString();
+        return getPage(firstPageUrl, endpoint, reader)
+                .flatMapMany(first -> first.last() != null
+                        ? Flux.just(first).concatWith(getRemainingPages(url, endpoint, first.last(), reader))
+                        : followNextPages(url, endpoint, first, reader))
+                .concatMapIterable(Page::items)
+                .collectList();
+    }
+    
+    private <T> Flux<Page<T>> getRemainingPages(String url, String endpoint, String lastPageUrl, PageReader<T> reader) {
+        var lastPage = GitHubClient.pageNumber(lastPageUrl);
+        if (lastPage > maxPages) {
+            return Flux.error(() -> GitHubClient.tooManyPages(url, endpoint, maxPages, meterRegistry));
+        }
+        return Flux.range(2, Math.max(0, lastPage - 1))
+                .flatMapSequential(page -> getPage(UriComponentsBuilder.fromUriString(lastPageUrl)
+                        .replaceQueryParam("page", page)
+                        .toUriString(), endpoint, reader), Math.max(1, lastPage - 1));
+    }
+    
+    private <T> Flux<Page<T>> followNextPages(String url, String endpoint, Page<T> first, PageReader<T> reader) {
+        return Mono.just(first)
+                .expand(page -> page.next() == null ? Mono.empty() : getPage(page.next(), endpoint, reader))
+                .take(maxPages)
+                .collectList()
+                .flatMapMany(pages -> pages.size() == maxPages && pages.get(pages.size() - 1).next() != null
+                        ? Flux.error(GitHubClient.tooManyPages(url, endpoint, maxPages, meterRegistry))
+                        : Flux.fromIterable(pages));
+    }
+    
+    /**
+     * Requests one page behind the shared circuit breaker, retrying 5xx and I/O errors.
+     */
+    private <T> Mono<Page<T>> getPage(String url, String endpoint, PageReader<T> reader) {
+        return resilience.executeReactive(endpoint, webClient.get()
+                        .uri(URI.create(url))
+                        .retrieve()
+                        .toEntity(byte[].class))
+                .map(response -> {
+                    var links = GitHubClient.parseLinks(response.getHeaders().getFirst(HttpHeaders.LINK));
+                    return new Page<>(read(reader, response), links.next(), links.last());
+                });
+    }
+    
+    private <T> List<T> read(PageReader<T> reader, ResponseEntity<byte[]> response) {
+        var body = response.getBody();
+        if (body == null) {
+            return List.of();
+        }
+        try (var parser = jsonFactory.createParser(body)) {
+            return reader.read(parser);
+        } catch (IOException | IllegalStateException e) {
+            throw new GitHubApiException("Unexpected error while reading GitHub response: " + e.getMessage(), 500);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface PageReader<T> {
+        List<T> read(JsonParser parser) throws IOException;
+    }
+    
+    private record Page<T>(List<T> items, String next, String last) {}
+}
@@ -0,0 +1,108 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Last known branches per repository, keyed by the repository's {@code pushed_at}. Every push,
+ * including one that creates a branch, moves {@code pushed_at}, so while it is unchanged the
+ * branches are reused without any upstream call, not even a conditional one. Entries older than
+ * {@code ttl} are refetched anyway, covering changes that do not count as a push such as branch
+ * deletion in the web UI. Branch lists are held compacted by {@link ResultCompactor}.
+ */
+@Component
+public class RepositoryBranchCache {
+    
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final ResultCompactor compactor;
+    
+    private final Counter reused;
+    private final Counter refetched;
+    
+    public RepositoryBranchCache(@Value("${github.api.branch-cache.enabled:true}") boolean enabled,
+                                 @Value("${github.api.branch-cache.max-entries:50000}") int maxEntries,
+                                 @Value("${github.api.branch-cache.ttl:1h}") Duration ttl,
+                                 ResultCompactor compactor,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.compactor = compactor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > RepositoryBranchCache.this.maxEntries;
+            }
+        };
+        
+        this.reused = Counter.builder("github.branches.incremental").tag("result", "reused")
+                .description("Repositories whose branches were reused because pushed_at did not move").register(meterRegistry);
+        this.refetched = Counter.builder("github.branches.incremental").tag("result", "refetched")
+                .description("Repositories whose branches had to be fetched").register(meterRegistry);
+    }
+    
+    /**
+     * Returns the cached branches if the repository has not been pushed to since they were
+     * stored, or {@code null} when they have to be fetched.
+     */
+    public List<BranchDto> get(GitHubRepository repo) {
+        if (!enabled || repo.pushedAt() == null) {
+            refetched.increment();
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key(repo));
+        }
+        if (entry == null
+                || !entry.pushedAt().equals(repo.pushedAt())
+                || System.nanoTime() - entry.storedAtNanos() > ttlNanos) {
+            refetched.increment();
+            return null;
+        }
+        reused.increment();
+        return entry.branches();
+    }
+    
+    public void put(GitHubRepository repo, List<BranchDto> branches) {
+        if (!enabled || repo.pushedAt() == null) {
+            return;
+        }
+        var entry = new Entry(repo.pushedAt(), compactor.branches(branches), System.nanoTime());
+        synchronized (entries) {
+            entries.put(key(repo), entry);
+        }
+    }
+    
+    /**
+     * Forgets the repository's branches, for changes reported by a webhook.
+     */
+    public void evict(String owner, String name) {
+        synchronized (entries) {
+            entries.remove(key(owner, name));
+        }
+    }
+    
+    private static String key(GitHubRepository repo) {
+        return key(repo.owner().login(), repo.name());
+    }
+    
+    private static String key(String owner, String name) {
+        return (owner + "/" + name).toLowerCase(Locale.ROOT);
+    }
+    
+    private record Entry(String pushedAt, List<BranchDto> branches, long storedAtNanos) {}
+}
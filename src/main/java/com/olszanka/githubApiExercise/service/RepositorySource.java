@@ -0,0 +1,49 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Upstream strategy that turns a username into its non-fork repositories with branches.
+ * Implementations report failures as {@link GitHubApiService.GitHubApiException}, using
+ * {@link GitHubApiService#USER_NOT_FOUND} with status 404 for users GitHub does not know.
+ * The active implementation is chosen with {@code github.api.backend}.
+ */
+public interface RepositorySource {
+    
+    List<RepositoryDto> getRepositories(String username);
+    
+    /**
+     * Like {@link #getRepositories} but answers by {@code deadlineNanos} (a
+     * {@link System#nanoTime()} value) whatever happens to single repositories: those whose
+     * branches failed or were not fetched in time come back with no branches, {@code incomplete}
+     * set and the reason in {@code error}. Only a failure of the repository list itself fails
+     * the call. Sources that cannot isolate repositories answer the full result.
+     */
+    default List<RepositoryDto> getPartialRepositories(String username, long deadlineNanos) {
+        return getRepositories(username);
+    }
+    
+    /**
+     * Does enough upstream work to know the user exists, so that failure can still be reported
+     * with a proper status, and returns a stream that fetches and delivers the rest.
+     */
+    RepositoryStream openStream(String username);
+    
+    @FunctionalInterface
+    interface RepositoryStream {
+        /**
+         * Hands every repository to the writer as soon as it is complete. An upstream failure
+         * part-way through is thrown as {@link GitHubApiService.GitHubApiException}; an
+         * {@link IOException} from the writer stops the stream and cancels pending calls.
+         */
+        void forEach(RepositoryWriter writer) throws IOException;
+    }
+    
+    @FunctionalInterface
+    interface RepositoryWriter {
+        void write(RepositoryDto repository) throws IOException;
+    }
+}
@@ -0,0 +1,312 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.BranchPage;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.RepositoryPage;
+import com.olszanka.githubApiExercise.service.UpstreamScheduler.Priority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static com.olszanka.githubApiExercise.service.GitHubApiService.USER_NOT_FOUND;
+
+/**
+ * REST v3 backend: one call for the repository list, then one branches call per
+ * non-fork repository, issued sequentially or fanned out depending on {@link BranchFetchMode}.
+ */
+@Component
+@ConditionalOnProperty(name = "github.api.backend", havingValue = "rest", matchIfMissing = true)
+public class RestRepositorySource implements RepositorySource {
+    
+    private final GitHubClient gitHubClient;
+    private final GitHubObservations observations;
+    private final RepositoryBranchCache branchCache;
+    private final String baseUrl;
+    private final ExecutorService upstreamExecutor;
+    private final BranchFetchMode branchFetchMode;
+    private final int branchFetchMaxConcurrency;
+    private final Duration branchFetchTimeout;
+    
+    public RestRepositorySource(GitHubClient gitHubClient,
+                                GitHubObservations observations,
+                                RepositoryBranchCache branchCache,
+                                @Value("${github.api.base-url}") String baseUrl,
+                                ExecutorService upstreamExecutor,
+                                @Value("${github.api.branch-fetch.mode:concurrent}") BranchFetchMode branchFetchMode,
+                                @Value("${github.api.branch-fetch.max-concurrency:16}") int branchFetchMaxConcurrency,
+                                @Value("${github.api.branch-fetch.timeout:10s}") Duration branchFetchTimeout) {
+        this.gitHubClient = gitHubClient;
+        this.observations = observations;
+        this.branchCache = branchCache;
+        this.baseUrl = baseUrl;
+        this.upstreamExecutor = upstreamExecutor;
+        this.branchFetchMode = branchFetchMode;
+        this.branchFetchMaxConcurrency = branchFetchMaxConcurrency;
+        this.branchFetchTimeout = branchFetchTimeout;
+    }
+    
+    /**
+     * Fetches the user's non-fork repositories with their branches. There is no separate
+     * existence check: a 404 from the repositories endpoint means the user does not exist.
+     */
+    @Override
+    public List<RepositoryDto> getRepositories(String username) {
+        var ownRepositories = observations.phase("repositories", () -> getOwnRepositories(username));
+        
+        try {
+            return observations.phase("branches", () -> {
+                if (branchFetchMode == BranchFetchMode.CONCURRENT) {
+                    return fetchBranchesConcurrently(username, ownRepositories);
+                }
+                return ownRepositories.stream()
+                        .map(repo -> toRepositoryDto(username, repo))
+                        .collect(Collectors.toList());
+            });
+        } catch (GitHubApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GitHubApiException("Unexpected error while retrieving repositories: " + e.getMessage(), 500);
+        }
+    }
+    
+    /**
+     * The repository list has to arrive by the deadline or the call fails with a 504; after
+     * that every repository is answered, complete or marked incomplete, by the deadline.
+     */
+    @Override
+    public List<RepositoryDto> getPartialRepositories(String username, long deadlineNanos) {
+        var listing = upstreamExecutor.submit(() -> observations.phase("repositories", () -> getOwnRepositories(username)));
+        List<GitHubRepository> ownRepositories;
+        try {
+            ownRepositories = listing.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GitHubApiException apiException) {
+                throw apiException;
+            }
+            throw new GitHubApiException("Unexpected error while retrieving repositories: " + e.getCause().getMessage(), 500);
+        } catch (TimeoutException e) {
+            listing.cancel(true);
+            throw new GitHubApiException("Timed out while retrieving repositories for user: " + username, 504);
+        } catch (InterruptedException e) {
+            listing.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while retrieving repositories for user: " + username, 500);
+        }
+        return observations.phase("branches", () -> fetchBranchesUntil(username, ownRepositories, deadlineNanos));
+    }
+    
+    @Override
+    public RepositoryStream openStream(String username) {
+        var ownRepositories = observations.phase("repositories", () -> getOwnRepositories(username));
+        return writer -> streamRepositories(username, ownRepositories, writer);
+    }
+    
+    private List<GitHubRepository> getOwnRepositories(String username) {
+        var url = baseUrl + "/users/" + username + "/repos";
+        
+        try {
+            // Forks are already dropped while the pages are parsed.
+            return gitHubClient.getAllPages(url, RepositoryPage.class, Priority.LISTING);
+        } catch (GitHubApiException e) {
+            throw e;
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new GitHubApiException(USER_NOT_FOUND, 404);
+        } catch (HttpClientErrorException e) {
+            throw new GitHubApiException("Failed to retrieve repositories: " + e.getMessage(), e.getStatusCode().value());
+        } catch (Exception e) {
+            throw new GitHubApiException("Unexpected error while retrieving repositories: " + e.getMessage(), 500);
+        }
+    }
+    
+    /**
+     * Writes each repository as soon as its branches are known. A separate submitter keeps at
+     * most {@code branchFetchMaxConcurrency} repositories fetched-but-not-yet-written, so memory
+     * stays bounded however large the account is. When the writer fails (the client went away)
+     * every outstanding upstream call is cancelled.
+     */
+    private void streamRepositories(String username, List<GitHubRepository> repositories, RepositoryWriter writer)
+            throws IOException {
+        var deadline = System.nanoTime() + branchFetchTimeout.toNanos();
+        var window = new Semaphore(branchFetchMaxConcurrency);
+        var completed = new ExecutorCompletionService<RepositoryDto>(upstreamExecutor);
+        var futures = new ConcurrentLinkedQueue<Future<RepositoryDto>>();
+        
+        Future<?> submitter = upstreamExecutor.submit(() -> {
+            for (var repo : repositories) {
+                window.acquire();
+                futures.add(completed.submit(() -> toRepositoryDto(username, repo)));
+            }
+            return null;
+        });
+        
+        try {
+            for (var written = 0; written < repositories.size(); written++) {
+                var next = completed.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    throw new GitHubApiException("Timed out while retrieving branches for user: " + username, 504);
+                }
+                writer.write(next.get());
+                window.release();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GitHubApiException apiException) {
+                throw apiException;
+            }
+            throw new GitHubApiException("Unexpected error while retrieving branches: " + e.getCause().getMessage(), 500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while retrieving branches for user: " + username, 500);
+        } finally {
+            submitter.cancel(true);
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    /**
+     * Reuses the branches known from an earlier request while the repository's
+     * {@code pushed_at} is unchanged, so only repositories pushed to since then cost a call.
+     */
+    private RepositoryDto toRepositoryDto(String username, GitHubRepository repo) {
+        var branches = branchCache.get(repo);
+        if (branches == null) {
+            branches = getRepositoryBranches(username, repo.name());
+            branchCache.put(repo, branches);
+        }
+        return toRepositoryDto(repo, branches);
+    }
+    
+    static RepositoryDto toRepositoryDto(GitHubRepository repo, List<BranchDto> branches) {
+        return new RepositoryDto(
+                repo.name(),
+                repo.owner().login(),
+                branches
+        );
+    }
+    
+    static RepositoryDto incompleteRepositoryDto(GitHubRepository repo, String error) {
+        return new RepositoryDto(repo.name(), repo.owner().login(), List.of(), true, error);
+    }
+    
+    /**
+     * Issues the branches requests for all repositories at once, at most
+     * {@code branchFetchMaxConcurrency} in flight, and collects the results in the original
+     * repository order. The whole fan-out shares a single deadline; when it passes, the
+     * outstanding requests are cancelled and a 504 is reported.
+     */
+    private List<RepositoryDto> fetchBranchesConcurrently(String username, List<GitHubRepository> repositories) {
+        var deadline = System.nanoTime() + branchFetchTimeout.toNanos();
+        var futures = submitBranchFetches(username, repositories, deadline);
+        
+        try {
+            var result = new ArrayList<RepositoryDto>(futures.size());
+            for (var future : futures) {
+                result.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return result;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof GitHubApiException apiException) {
+                throw apiException;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new GitHubApiException("Timed out while retrieving branches for user: " + username, 504);
+            }
+            throw new GitHubApiException("Unexpected error while retrieving branches: " + e.getCause().getMessage(), 500);
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new GitHubApiException("Timed out while retrieving branches for user: " + username, 504);
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while retrieving branches for user: " + username, 500);
+        }
+    }
+    
+    /**
+     * Partial-result counterpart of {@link #fetchBranchesConcurrently}: a repository that
+     * fails, or is not done by the deadline, is marked incomplete instead of failing the rest.
+     * Calls still running at the deadline are cancelled and no longer waited for.
+     */
+    private List<RepositoryDto> fetchBranchesUntil(String username, List<GitHubRepository> repositories, long deadline) {
+        var futures = submitBranchFetches(username, repositories, deadline);
+        var result = new ArrayList<RepositoryDto>(futures.size());
+        
+        try {
+            for (var i = 0; i < futures.size(); i++) {
+                var repo = repositories.get(i);
+                var future = futures.get(i);
+                try {
+                    result.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    result.add(incompleteRepositoryDto(repo, e.getCause() instanceof TimeoutException
+                            ? "Timed out while retrieving branches"
+                            : e.getCause().getMessage()));
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    result.add(incompleteRepositoryDto(repo, "Timed out while retrieving branches"));
+                }
+            }
+            return result;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while retrieving branches for user: " + username, 500);
+        }
+    }
+    
+    /**
+     * Submits one branches fetch per repository, at most {@code branchFetchMaxConcurrency} of
+     * them running at once; a fetch that gets no slot before the deadline fails with a
+     * {@link TimeoutException}.
+     */
+    private List<Future<RepositoryDto>> submitBranchFetches(String username, List<GitHubRepository> repositories, long deadline) {
+        var permits = new Semaphore(branchFetchMaxConcurrency);
+        var futures = new ArrayList<Future<RepositoryDto>>(repositories.size());
+        
+        for (var repo : repositories) {
+            futures.add(upstreamExecutor.submit(() -> {
+                if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new TimeoutException("No fetch slot available before the deadline");
+                }
+                try {
+                    return toRepositoryDto(username, repo);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        return futures;
+    }
+    
+    private List<BranchDto> getRepositoryBranches(String username, String repoName) {
+        var url = baseUrl + "/repos/" + username + "/" + repoName + "/branches";
+        
+        try {
+            return gitHubClient.getAllPages(url, BranchPage.class, Priority.BRANCHES);
+        } catch (GitHubApiException e) {
+            throw e;
+        } catch (HttpClientErrorException e) {
+            throw new GitHubApiException("Failed to retrieve branches: " + e.getMessage(), e.getStatusCode().value());
+        } catch (Exception e) {
+            throw new GitHubApiException("Unexpected error while retrieving branches: " + e.getMessage(), 500);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shrinks results before the caches hold them for a long time. Owner logins and branch names
+ * repeat across thousands of repositories ({@code main}, {@code master}, {@code develop}), so
+ * they are interned in one table shared by all caches, and branch lists become
+ * {@link CompactBranches}. The table stops growing at {@code max-interned} names; later names
+ * are kept as they are.
+ */
+@Component
+public class ResultCompactor {
+    
+    private final boolean enabled;
+    private final int maxInterned;
+    private final Map<String, String> interned = new ConcurrentHashMap<>();
+    
+    public ResultCompactor(@Value("${github.api.compact.enabled:true}") boolean enabled,
+                           @Value("${github.api.compact.max-interned:100000}") int maxInterned,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxInterned = maxInterned;
+        
+        Gauge.builder("github.compact.interned", interned, Map::size)
+                .description("Names held in the interning table").register(meterRegistry);
+    }
+    
+    public List<RepositoryDto> repositories(List<RepositoryDto> repositories) {
+        if (!enabled) {
+            return List.copyOf(repositories);
+        }
+        var result = new ArrayList<RepositoryDto>(repositories.size());
+        for (var repository : repositories) {
+            result.add(new RepositoryDto(repository.name(), intern(repository.ownerLogin()),
+                    branches(repository.branches()), repository.incomplete(), repository.error()));
+        }
+        return List.copyOf(result);
+    }
+    
+    public List<BranchDto> branches(List<BranchDto> branches) {
+        if (branches == null || branches instanceof CompactBranches) {
+            return branches;
+        }
+        var compact = enabled ? CompactBranches.of(branches, this) : null;
+        return compact != null ? compact : List.copyOf(branches);
+    }
+    
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        var existing = interned.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (interned.size() >= maxInterned) {
+            return value;
+        }
+        existing = interned.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
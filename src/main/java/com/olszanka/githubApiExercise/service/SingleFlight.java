@@ -0,0 +1,80 @@
+package com.olszanka.githubApiExercise.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs the
+ * computation, callers arriving while it is in flight wait for and share its result or
+ * exception. Nothing is remembered once the computation completes.
+ * <p>
+ * Joiners wait at most {@code maxWait}, so a hung computation cannot hold every caller for
+ * the same key; they then fail with a 504 while the first caller keeps waiting on its own.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Counter coalesced;
+    
+    public SingleFlight(String scope, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.coalesced = Counter.builder("github.singleflight.coalesced")
+                .tag("scope", scope)
+                .description("Calls that joined an identical in-flight computation instead of starting their own")
+                .register(meterRegistry);
+    }
+    
+    public V execute(K key, Supplier<V> computation) {
+        var own = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        
+        try {
+            var result = computation.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+    
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+    
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new GitHubApiException("Timed out waiting for an identical request in flight", 504);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while waiting for an identical request in flight", 500);
+        }
+    }
+}
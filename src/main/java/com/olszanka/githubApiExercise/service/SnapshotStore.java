@@ -0,0 +1,423 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.BranchPage;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.Page;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.RepositoryPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Append-only on-disk store of per-user results and per-URL conditional request entries, so a
+ * restarted node can answer from the last known state instead of starting cold.
+ * <p>
+ * Each record is one line, {@code type \t key \t storedAtMillis \t json}; a later line for the
+ * same key supersedes earlier ones and a {@code null} payload removes it. At startup only the
+ * keys and offsets are indexed, in the background; lookups miss until that is done instead of
+ * waiting for it, and payloads are parsed when looked up. All writes go through a single
+ * writer thread, so request threads never wait on the disk. Once
+ * the log exceeds {@code max-size} it is compacted to the latest record per key, dropping the
+ * oldest keys if the live set alone would use more than half the limit.
+ */
+@Component
+public class SnapshotStore implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+    
+    private static final String LOG_FILE = "snapshots.log";
+    private static final String USER = "user";
+    private static final String REPOS_PAGE = "repos";
+    private static final String BRANCHES_PAGE = "branches";
+    private static final byte[] TOMBSTONE = "null".getBytes(StandardCharsets.UTF_8);
+    private static final int SCAN_CHUNK_BYTES = 1 << 16;
+    
+    private final boolean enabled;
+    private final Path file;
+    private final long maxBytes;
+    private final long freshForMillis;
+    private final long maxStaleMillis;
+    private final ObjectMapper objectMapper;
+    private final JavaType repositoriesType;
+    private final JavaType repositoryPageType;
+    private final JavaType branchPageType;
+    private final ExecutorService writer;
+    private final CompletableFuture<Void> loaded;
+    private final Counter failures;
+    
+    private volatile Segment segment;
+    
+    public SnapshotStore(@Value("${github.api.snapshot.enabled:false}") boolean enabled,
+                         @Value("${github.api.snapshot.directory:data/snapshots}") Path directory,
+                         @Value("${github.api.snapshot.max-size:64MB}") DataSize maxSize,
+                         @Value("${github.api.snapshot.fresh-for:1m}") Duration freshFor,
+                         @Value("${github.api.snapshot.max-stale:7d}") Duration maxStale,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.file = directory.resolve(LOG_FILE);
+        this.maxBytes = maxSize.toBytes();
+        this.freshForMillis = freshFor.toMillis();
+        this.maxStaleMillis = maxStale.toMillis();
+        this.objectMapper = objectMapper;
+        var types = objectMapper.getTypeFactory();
+        this.repositoriesType = types.constructCollectionType(List.class, RepositoryDto.class);
+        this.repositoryPageType = types.constructParametricType(StoredPage.class, GitHubRepository.class);
+        this.branchPageType = types.constructParametricType(StoredPage.class, BranchDto.class);
+        this.failures = Counter.builder("github.snapshot.failures")
+                .description("Snapshot reads or writes that failed and were skipped").register(meterRegistry);
+        Gauge.builder("github.snapshot.keys", this, SnapshotStore::size)
+                .description("Keys currently held in the snapshot log").register(meterRegistry);
+        
+        if (!enabled) {
+            this.writer = null;
+            this.loaded = CompletableFuture.completedFuture(null);
+            return;
+        }
+        this.writer = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("snapshot-writer").daemon().factory());
+        this.loaded = CompletableFuture.runAsync(this::open, writer);
+    }
+    
+    /**
+     * Returns the last stored repositories of the user unless they are older than
+     * {@code max-stale}. The snapshot is marked stale once it is older than {@code fresh-for}.
+     */
+    public Optional<Snapshot<List<RepositoryDto>>> loadRepositories(String username) {
+        return this.<List<RepositoryDto>>read(USER, username, repositoriesType)
+                .filter(snapshot -> snapshot.ageMillis() <= maxStaleMillis);
+    }
+    
+    /**
+     * Stores the repositories of the user, unless {@code unchanged} no longer holds when the
+     * writer gets to them.
+     */
+    public void saveRepositories(String username, List<RepositoryDto> repositories, BooleanSupplier unchanged) {
+        if (!enabled) {
+            return;
+        }
+        var storedAt = System.currentTimeMillis();
+        writer.execute(() -> {
+            if (unchanged.getAsBoolean()) {
+                store(USER, username, repositories, storedAt);
+            }
+        });
+    }
+    
+    /**
+     * Applies a change to the stored repositories of the user, keeping their age; an update
+     * returning {@code null} removes them instead. The change is read and written on the writer
+     * thread, so it is ordered with saves.
+     */
+    public void updateRepositories(String username, UnaryOperator<List<RepositoryDto>> update) {
+        if (!enabled) {
+            return;
+        }
+        writer.execute(() -> this.<List<RepositoryDto>>read(USER, username, repositoriesType).ifPresent(snapshot -> {
+            var now = System.currentTimeMillis();
+            var repositories = update.apply(snapshot.value());
+            store(USER, username, repositories, repositories == null ? now : now - snapshot.ageMillis());
+        }));
+    }
+    
+    public void removeRepositories(String username) {
+        var current = segment;
+        if (current != null && current.index().containsKey(indexKey(USER, username))) {
+            write(USER, username, null);
+        }
+    }
+    
+    /**
+     * Returns the stored conditional request entry for the URL, dated to when it was written so
+     * that the cache's {@code ttl} keeps counting across reloads.
+     */
+    public Optional<ConditionalRequestCache.Entry> loadPage(String url) {
+        return this.<StoredPage<GitHubRepository>>read(REPOS_PAGE, url, repositoryPageType)
+                .map(snapshot -> pageEntry(snapshot, RepositoryPage::new))
+                .or(() -> this.<StoredPage<BranchDto>>read(BRANCHES_PAGE, url, branchPageType)
+                        .map(snapshot -> pageEntry(snapshot, BranchPage::new)));
+    }
+    
+    public void savePage(String url, String etag, String lastModified, String link, Object body) {
+        var type = body instanceof RepositoryPage ? REPOS_PAGE : body instanceof BranchPage ? BRANCHES_PAGE : null;
+        if (type != null) {
+            write(type, url, new StoredPage<>(etag, lastModified, link, ((Page<?>) body).items()));
+        }
+    }
+    
+    /**
+     * Keys available to lookups; {@code 0} until the startup scan is done.
+     */
+    public int size() {
+        if (!loaded.isDone()) {
+            return 0;
+        }
+        var current = segment;
+        return current == null ? 0 : current.index().size();
+    }
+    
+    @Override
+    public void close() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        var current = segment;
+        if (current != null) {
+            current.channel().close();
+        }
+    }
+    
+    private <T> Optional<Snapshot<T>> read(String type, String key, JavaType valueType) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (!loaded.isDone()) {
+            return Optional.empty();
+        }
+        var current = segment;
+        var location = current == null ? null : current.index().get(indexKey(type, key));
+        if (location == null) {
+            return Optional.empty();
+        }
+        try {
+            var buffer = ByteBuffer.allocate(location.length());
+            while (buffer.hasRemaining()) {
+                if (current.channel().read(buffer, location.offset() + buffer.position()) < 0) {
+                    throw new IOException("Snapshot log truncated at " + location.offset());
+                }
+            }
+            var line = buffer.array();
+            var payloadStart = payloadStart(line);
+            T value = objectMapper.readValue(line, payloadStart, line.length - payloadStart, valueType);
+            var age = Math.max(0, System.currentTimeMillis() - location.storedAtMillis());
+            return Optional.of(new Snapshot<>(value, age, age > freshForMillis));
+        } catch (IOException e) {
+            // The segment may have been swapped out by a compaction; treat it as a miss.
+            failures.increment();
+            return Optional.empty();
+        }
+    }
+    
+    private void write(String type, String key, Object value) {
+        write(type, key, value, System.currentTimeMillis());
+    }
+    
+    private void write(String type, String key, Object value, long storedAt) {
+        if (!enabled) {
+            return;
+        }
+        writer.execute(() -> store(type, key, value, storedAt));
+    }
+    
+    /**
+     * Appends a record, compacting the log once it is too large; runs on the writer thread.
+     */
+    private void store(String type, String key, Object value, long storedAt) {
+        try {
+            append(type, key, storedAt, value == null ? TOMBSTONE : objectMapper.writeValueAsBytes(value));
+            if (segment.channel().size() > maxBytes) {
+                compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.warn("Could not write snapshot for {} {}", type, key, e);
+        }
+    }
+    
+    private void append(String type, String key, long storedAt, byte[] payload) throws IOException {
+        var current = segment;
+        if (current == null) {
+            return;
+        }
+        var line = line(type, key, storedAt, payload);
+        var offset = current.channel().size();
+        var buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            current.channel().write(buffer, offset + buffer.position());
+        }
+        if (payload == TOMBSTONE) {
+            current.index().remove(indexKey(type, key));
+        } else {
+            current.index().put(indexKey(type, key), new Location(offset, line.length, storedAt));
+        }
+    }
+    
+    /**
+     * Builds the index from the log, dropping a torn or unreadable tail left by a crash mid-write.
+     */
+    private void open() {
+        try {
+            Files.createDirectories(file.getParent());
+            var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var index = new ConcurrentHashMap<String, Location>();
+            var validLength = scan(channel, index);
+            if (validLength < channel.size()) {
+                channel.truncate(validLength);
+            }
+            segment = new Segment(channel, index);
+            if (channel.size() > maxBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            failures.increment();
+            log.warn("Snapshot store at {} is unavailable", file, e);
+        }
+    }
+    
+    /**
+     * Indexes the log a chunk at a time. Only the header of each record is kept while reading;
+     * the payload is skipped apart from the few bytes needed to recognise a tombstone.
+     */
+    private static long scan(FileChannel channel, Map<String, Location> index) throws IOException {
+        var chunk = ByteBuffer.allocate(SCAN_CHUNK_BYTES);
+        var bytes = chunk.array();
+        var header = new ByteArrayOutputStream();
+        var tabs = 0;
+        var payloadLength = 0;
+        var tombstone = true;
+        long position = 0;
+        long lineStart = 0;
+        int read;
+        while ((read = channel.read(chunk.clear(), position)) > 0) {
+            for (var i = 0; i < read; i++) {
+                var b = bytes[i];
+                if (b == '\n') {
+                    var lineEnd = position + i + 1;
+                    try {
+                        if (tabs < 3) {
+                            throw new IllegalStateException("Malformed snapshot record");
+                        }
+                        var fields = header.toString(StandardCharsets.UTF_8).split("\t", 4);
+                        var key = indexKey(fields[0], fields[1]);
+                        if (tombstone && payloadLength == TOMBSTONE.length) {
+                            index.remove(key);
+                        } else {
+                            index.put(key, new Location(lineStart, Math.toIntExact(lineEnd - lineStart), Long.parseLong(fields[2])));
+                        }
+                    } catch (RuntimeException e) {
+                        // Unreadable from here on; keep what was indexed and let the log be truncated.
+                        return lineStart;
+                    }
+                    lineStart = lineEnd;
+                    header.reset();
+                    tabs = 0;
+                    payloadLength = 0;
+                    tombstone = true;
+                } else if (tabs < 3) {
+                    header.write(b);
+                    if (b == '\t') {
+                        tabs++;
+                    }
+                } else {
+                    tombstone &= payloadLength < TOMBSTONE.length && b == TOMBSTONE[payloadLength];
+                    payloadLength++;
+                }
+            }
+            position += read;
+        }
+        return lineStart;
+    }
+    
+    /**
+     * Rewrites the log with the latest record per key, newest first, up to half of
+     * {@code max-size}, then swaps it in atomically.
+     */
+    private void compact() throws IOException {
+        var current = segment;
+        var compacted = file.resolveSibling(LOG_FILE + ".compact");
+        var index = new ConcurrentHashMap<String, Location>();
+        try (var out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offset = 0;
+            var live = current.index().entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, Location> e) -> e.getValue().storedAtMillis()).reversed())
+                    .toList();
+            for (var entry : live) {
+                var location = entry.getValue();
+                if (offset + location.length() > maxBytes / 2) {
+                    break;
+                }
+                current.channel().transferTo(location.offset(), location.length(), out);
+                index.put(entry.getKey(), new Location(offset, location.length(), location.storedAtMillis()));
+                offset += location.length();
+            }
+            out.force(true);
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        segment = new Segment(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE), index);
+        current.channel().close();
+    }
+    
+    private static <T> ConditionalRequestCache.Entry pageEntry(Snapshot<StoredPage<T>> snapshot, Function<List<T>, Page<T>> page) {
+        var stored = snapshot.value();
+        return new ConditionalRequestCache.Entry(stored.etag(), stored.lastModified(), stored.link(),
+                page.apply(stored.items()), System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(snapshot.ageMillis()));
+    }
+    
+    private static byte[] line(String type, String key, long storedAt, byte[] payload) {
+        var header = (type + '\t' + key + '\t' + storedAt + '\t').getBytes(StandardCharsets.UTF_8);
+        var line = new byte[header.length + payload.length + 1];
+        System.arraycopy(header, 0, line, 0, header.length);
+        System.arraycopy(payload, 0, line, header.length, payload.length);
+        line[line.length - 1] = '\n';
+        return line;
+    }
+    
+    private static int payloadStart(byte[] line) {
+        var tabs = 0;
+        for (var i = 0; i < line.length; i++) {
+            if (line[i] == '\t' && ++tabs == 3) {
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException("Malformed snapshot record");
+    }
+    
+    private static String indexKey(String type, String key) {
+        return type + '\t' + key;
+    }
+    
+    /**
+     * A stored value with its age in milliseconds; {@code stale} once older than {@code fresh-for}.
+     */
+    public record Snapshot<T>(T value, long ageMillis, boolean stale) {}
+    
+    record StoredPage<T>(String etag, String lastModified, String link, List<T> items) {}
+    
+    private record Location(long offset, int length, long storedAtMillis) {}
+    
+    private record Segment(FileChannel channel, Map<String, Location> index) {}
+}
@@ -0,0 +1,51 @@
+package com.olszanka.githubApiExercise.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived memory of usernames GitHub reported as non-existent, so repeated lookups of a
+ * mistyped name are answered with 404 without another upstream call. A zero TTL disables it.
+ */
+@Component
+public class UnknownUserCache {
+    
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<>();
+    
+    public UnknownUserCache(@Value("${github.api.unknown-user-cache.ttl:30s}") Duration ttl,
+                            @Value("${github.api.unknown-user-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+    
+    public boolean isUnknown(String username) {
+        var expiry = expiries.get(username);
+        if (expiry == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiry > 0) {
+            expiries.remove(username, expiry);
+            return false;
+        }
+        return true;
+    }
+    
+    public void markUnknown(String username) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        if (expiries.size() >= maxEntries) {
+            var now = System.nanoTime();
+            expiries.values().removeIf(expiry -> now - expiry > 0);
+            if (expiries.size() >= maxEntries) {
+                expiries.clear();
+            }
+        }
+        expiries.put(username, System.nanoTime() + ttlNanos);
+    }
+}
@@ -0,0 +1,379 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Retries, hedging and a circuit breaker around upstream calls. All upstream calls are reads,
+ * so repeating one is always safe.
+ * <ul>
+ *   <li>5xx responses and I/O errors are retried up to {@code max-attempts} times with full
+ *   jitter exponential backoff. When they keep failing the request fails with 502, or 504 for
+ *   timeouts, instead of a generic 500.</li>
+ *   <li>A call still running after the observed p95 latency of its endpoint gets a hedged
+ *   duplicate, and whichever answers first wins. Hedges cost rate-limit budget, so at most
+ *   {@code hedge.max-ratio} of calls are hedged, and each needs its own admission.</li>
+ *   <li>Once {@code breaker.failure-rate} of the last {@code breaker.window} attempts failed
+ *   the breaker opens and calls fail fast with 503 for {@code breaker.open-duration}; then a
+ *   single probe decides whether it closes again.</li>
+ * </ul>
+ * Rate-limit rejections from {@link UpstreamScheduler} and 4xx responses pass through untouched.
+ * The reactive stack gets the same retries and breaker through {@link #executeReactive}, but no
+ * hedging.
+ */
+@Component
+public class UpstreamResilience {
+    
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int MIN_SAMPLES_FOR_HEDGING = 20;
+    
+    private final ExecutorService upstreamExecutor;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayNanos;
+    private final double hedgeMaxRatio;
+    private final CircuitBreaker breaker;
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    
+    public UpstreamResilience(ExecutorService upstreamExecutor,
+                              @Value("${github.api.resilience.max-attempts:3}") int maxAttempts,
+                              @Value("${github.api.resilience.initial-backoff:100ms}") Duration initialBackoff,
+                              @Value("${github.api.resilience.max-backoff:1s}") Duration maxBackoff,
+                              @Value("${github.api.resilience.hedge.enabled:true}") boolean hedgeEnabled,
+                              @Value("${github.api.resilience.hedge.min-delay:50ms}") Duration hedgeMinDelay,
+                              @Value("${github.api.resilience.hedge.max-ratio:0.1}") double hedgeMaxRatio,
+                              @Value("${github.api.resilience.breaker.window:20}") int breakerWindow,
+                              @Value("${github.api.resilience.breaker.failure-rate:0.5}") double breakerFailureRate,
+                              @Value("${github.api.resilience.breaker.open-duration:30s}") Duration breakerOpenDuration,
+                              MeterRegistry meterRegistry) {
+        this.upstreamExecutor = upstreamExecutor;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.hedgeMaxRatio = hedgeMaxRatio;
+        this.breaker = new CircuitBreaker(breakerWindow, breakerFailureRate, breakerOpenDuration.toNanos());
+        
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("github.resilience.breaker.rejected")
+                .description("Calls failed fast because the circuit breaker was open").register(meterRegistry);
+        Gauge.builder("github.resilience.breaker.state", breaker, b -> b.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open").register(meterRegistry);
+    }
+    
+    /**
+     * Retries the call on 5xx and I/O errors behind the circuit breaker. The call is expected
+     * to include rate-limit admission, so every retry is admitted again.
+     */
+    public <T> ResponseEntity<T> execute(String endpoint, Supplier<ResponseEntity<T>> call) {
+        for (var attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                rejected.increment();
+                throw unavailable();
+            }
+            try {
+                var response = call.get();
+                breaker.onSuccess();
+                return response;
+            } catch (HttpServerErrorException | ResourceAccessException e) {
+                breaker.onFailure();
+                if (attempt >= maxAttempts) {
+                    throw exhausted(e);
+                }
+                counter("github.resilience.retries", endpoint, "Attempts repeated after a 5xx or I/O error").increment();
+                backOff(attempt);
+            } catch (RuntimeException e) {
+                // 4xx and rate-limit rejections say nothing about upstream health.
+                breaker.onNeutral();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Reactive counterpart of {@link #execute} for {@code WebClient} calls: the same breaker, and
+     * 5xx responses and I/O errors retried with jittered exponential backoff by subscribing to
+     * the call again. Exhausted retries fail with 502, or 504 for timeouts.
+     */
+    public <T> Mono<T> executeReactive(String endpoint, Mono<T> call) {
+        return Mono.defer(() -> {
+                    if (!breaker.tryAcquire()) {
+                        rejected.increment();
+                        return Mono.error(unavailable());
+                    }
+                    return call.doOnSuccess(response -> breaker.onSuccess())
+                            .doOnError(e -> {
+                                if (isRetryable(e)) {
+                                    breaker.onFailure();
+                                } else {
+                                    breaker.onNeutral();
+                                }
+                            })
+                            .doOnCancel(breaker::onNeutral);
+                })
+                .retryWhen(Retry.backoff(maxAttempts - 1, Duration.ofNanos(initialBackoffNanos))
+                        .maxBackoff(Duration.ofNanos(maxBackoffNanos))
+                        .filter(UpstreamResilience::isRetryable)
+                        .doBeforeRetry(signal -> counter("github.resilience.retries", endpoint,
+                                "Attempts repeated after a 5xx or I/O error").increment())
+                        .onRetryExhaustedThrow((spec, signal) -> exhausted(signal.failure())));
+    }
+    
+    /**
+     * Runs the call, and once it has taken longer than the endpoint's p95 a duplicate of it;
+     * returns the first successful response and cancels the other. Meant for the bare HTTP
+     * call, inside rate-limit admission, so time spent queuing for admission does not
+     * trigger hedges. The duplicate is only sent when {@code admitHedge} grants it a call of
+     * its own; it must not wait for one.
+     */
+    public <T> ResponseEntity<T> hedge(String endpoint, BooleanSupplier admitHedge, Supplier<ResponseEntity<T>> call) {
+        var latency = latencies.computeIfAbsent(endpoint, key -> new LatencyTracker());
+        var totalCalls = calls.incrementAndGet();
+        var hedgeDelay = latency.p95Nanos();
+        if (!hedgeEnabled || hedgeDelay < 0) {
+            return timed(latency, call);
+        }
+        
+        var completion = new ExecutorCompletionService<ResponseEntity<T>>(upstreamExecutor);
+        var primary = completion.submit(() -> timed(latency, call));
+        Future<ResponseEntity<T>> hedge = null;
+        try {
+            var first = completion.poll(Math.max(hedgeDelay, hedgeMinDelayNanos), TimeUnit.NANOSECONDS);
+            if (first == null && hedges.get() < totalCalls * hedgeMaxRatio) {
+                if (admitHedge.getAsBoolean()) {
+                    hedges.incrementAndGet();
+                    counter("github.resilience.hedges", endpoint, "Hedged duplicate requests sent").increment();
+                    hedge = completion.submit(() -> timed(latency, call));
+                } else {
+                    counter("github.resilience.hedges.skipped", endpoint, "Hedges not sent because no rate-limit token was free").increment();
+                }
+            }
+            var outstanding = hedge == null ? 1 : 2;
+            var done = first == null ? completion.take() : first;
+            while (true) {
+                try {
+                    var response = done.get();
+                    if (done == hedge) {
+                        counter("github.resilience.hedges.won", endpoint, "Hedged requests that answered first").increment();
+                    }
+                    return response;
+                } catch (ExecutionException e) {
+                    if (--outstanding == 0) {
+                        throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+                    }
+                    done = completion.take();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while calling GitHub", 500);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+    
+    private static <T> ResponseEntity<T> timed(LatencyTracker latency, Supplier<ResponseEntity<T>> call) {
+        var start = System.nanoTime();
+        var response = call.get();
+        latency.record(System.nanoTime() - start);
+        return response;
+    }
+    
+    private void backOff(int attempt) {
+        var ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(Math.max(1, ceiling)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while calling GitHub", 500);
+        }
+    }
+    
+    private GitHubApiException unavailable() {
+        return new GitHubApiException("GitHub API is unavailable, retry in "
+                + TimeUnit.NANOSECONDS.toSeconds(breaker.remainingOpenNanos()) + "s", 503);
+    }
+    
+    private static boolean isRetryable(Throwable e) {
+        return e instanceof WebClientRequestException
+                || (e instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError());
+    }
+    
+    private static GitHubApiException exhausted(Throwable e) {
+        if ((e instanceof ResourceAccessException || e instanceof WebClientRequestException)
+                && (e.getCause() instanceof SocketTimeoutException || e.getCause() instanceof TimeoutException)) {
+            return new GitHubApiException("GitHub API timed out: " + e.getMessage(), 504);
+        }
+        return new GitHubApiException("GitHub API error: " + e.getMessage(), 502);
+    }
+    
+    private Counter counter(String name, String endpoint, String description) {
+        return Counter.builder(name).tag("endpoint", endpoint).description(description).register(meterRegistry);
+    }
+    
+    /**
+     * Recent successful latencies of one endpoint; the p95 is recomputed every few samples.
+     */
+    private static final class LatencyTracker {
+        
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int next;
+        private int filled;
+        private volatile long p95Nanos = -1;
+        
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % LATENCY_SAMPLES;
+            filled = Math.min(filled + 1, LATENCY_SAMPLES);
+            if (filled >= MIN_SAMPLES_FOR_HEDGING && next % 16 == 0) {
+                var sorted = Arrays.copyOf(samples, filled);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) (sorted.length * 0.95)];
+            }
+        }
+        
+        /** The p95 latency, or -1 until enough samples were seen. */
+        long p95Nanos() {
+            return p95Nanos;
+        }
+    }
+    
+    enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    /**
+     * Count-based breaker over the outcomes of the last {@code window} attempts.
+     */
+    private static final class CircuitBreaker {
+        
+        private final boolean[] outcomes;
+        private final double failureRate;
+        private final long openNanos;
+        private int next;
+        private int recorded;
+        private int failures;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private boolean probing;
+        
+        CircuitBreaker(int window, double failureRate, long openNanos) {
+            this.outcomes = new boolean[Math.max(1, window)];
+            this.failureRate = failureRate;
+            this.openNanos = openNanos;
+        }
+        
+        synchronized boolean tryAcquire() {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+                probing = false;
+            }
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> {
+                    if (probing) {
+                        yield false;
+                    }
+                    probing = true;
+                    yield true;
+                }
+            };
+        }
+        
+        synchronized void onSuccess() {
+            if (state == State.HALF_OPEN) {
+                close();
+                return;
+            }
+            record(false);
+        }
+        
+        synchronized void onFailure() {
+            if (state == State.HALF_OPEN) {
+                open();
+                return;
+            }
+            record(true);
+            if (recorded >= outcomes.length && failures >= failureRate * outcomes.length) {
+                open();
+            }
+        }
+        
+        /** An answer that says nothing about health still ends a half-open probe. */
+        synchronized void onNeutral() {
+            probing = false;
+        }
+        
+        synchronized State state() {
+            return state;
+        }
+        
+        synchronized long remainingOpenNanos() {
+            return Math.max(0, openNanos - (System.nanoTime() - openedAt));
+        }
+        
+        private void record(boolean failure) {
+            if (recorded == outcomes.length && outcomes[next]) {
+                failures--;
+            }
+            outcomes[next] = failure;
+            if (failure) {
+                failures++;
+            }
+            next = (next + 1) % outcomes.length;
+            recorded = Math.min(recorded + 1, outcomes.length);
+        }
+        
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probing = false;
+        }
+        
+        private void close() {
+            state = State.CLOSED;
+            probing = false;
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            Arrays.fill(outcomes, false);
+        }
+    }
+}
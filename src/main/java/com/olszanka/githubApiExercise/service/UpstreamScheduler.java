@@ -0,0 +1,355 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Gatekeeper for every upstream GitHub call.
+ * <ul>
+ *   <li>Tracks the primary rate-limit budget from {@code X-RateLimit-Remaining}/{@code -Reset}
+ *   and fails fast with 503 once it cannot cover a call. The last {@code listingReserve}
+ *   requests of the budget are reserved for listing calls: branch calls give up once only
+ *   that many are left. Every admitted call is taken off the budget right away, since many
+ *   can be in flight before their headers report it; within one reset window a reported
+ *   value only ever lowers the budget, and a later {@code reset} starts it afresh.</li>
+ *   <li>Admits calls through a token bucket in {@link Priority} order, so queued listing calls
+ *   always go ahead of queued branch calls.</li>
+ *   <li>On a secondary rate limit (429, or 403 with {@code Retry-After} or a rate-limit message)
+ *   pauses all calls for {@code Retry-After} or a jittered exponential backoff and retries,
+ *   reporting 429 when the retries or the wait budget run out.</li>
+ *   <li>Reports how long each answered call took, waiting for admission included, to the
+ *   {@link ConcurrencyLimiter}; when the token bucket rather than GitHub is the bottleneck,
+ *   that wait is where the congestion shows.</li>
+ * </ul>
+ */
+@Component
+public class UpstreamScheduler {
+    
+    public enum Priority {
+        /** Repository list (and GraphQL) calls - needed before anything else can happen. */
+        LISTING,
+        /** Per-repository branch calls. */
+        BRANCHES
+    }
+    
+    private static final String REMAINING = "X-RateLimit-Remaining";
+    private static final String LIMIT = "X-RateLimit-Limit";
+    private static final String RESET = "X-RateLimit-Reset";
+    
+    private final double permitsPerNano;
+    private final double burst;
+    private final long maxWaitNanos;
+    private final int listingReserve;
+    private final int maxRetries;
+    private final long initialBackoffNanos;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final int[] waiting = new int[Priority.values().length];
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+    private long pausedUntil = System.nanoTime();
+    
+    private volatile Budget budget = new Budget(-1, -1, Instant.EPOCH);
+    
+    private final ConcurrencyLimiter limiter;
+    private final Counter rejectedBudget;
+    private final Counter rejectedQueue;
+    private final Counter secondaryLimitBackoffs;
+    
+    public UpstreamScheduler(@Value("${github.api.rate-limit.requests-per-second:20}") double requestsPerSecond,
+                             @Value("${github.api.rate-limit.burst:40}") int burst,
+                             @Value("${github.api.rate-limit.max-wait:2s}") Duration maxWait,
+                             @Value("${github.api.rate-limit.listing-reserve:50}") int listingReserve,
+                             @Value("${github.api.rate-limit.max-retries:3}") int maxRetries,
+                             @Value("${github.api.rate-limit.initial-backoff:1s}") Duration initialBackoff,
+                             ConcurrencyLimiter limiter,
+                             MeterRegistry meterRegistry) {
+        this.permitsPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.listingReserve = listingReserve;
+        this.maxRetries = maxRetries;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.limiter = limiter;
+        
+        this.rejectedBudget = Counter.builder("github.ratelimit.rejected").tag("reason", "budget")
+                .description("Calls refused because the rate-limit budget could not cover them").register(meterRegistry);
+        this.rejectedQueue = Counter.builder("github.ratelimit.rejected").tag("reason", "queue")
+                .description("Calls refused because no token became available in time").register(meterRegistry);
+        this.secondaryLimitBackoffs = Counter.builder("github.ratelimit.backoffs")
+                .description("Backoffs after a secondary rate limit response").register(meterRegistry);
+        Gauge.builder("github.ratelimit.remaining", this, scheduler -> scheduler.budget.remaining())
+                .description("Remaining GitHub rate-limit budget as last reported, -1 if unknown").register(meterRegistry);
+    }
+    
+    /**
+     * Runs the call once admitted and records the rate-limit headers of its response.
+     */
+    public <T> ResponseEntity<T> execute(Priority priority, Supplier<ResponseEntity<T>> call) {
+        var start = System.nanoTime();
+        for (var attempt = 0; ; attempt++) {
+            acquire(priority);
+            try {
+                var response = call.get();
+                limiter.sample(System.nanoTime() - start);
+                if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                    // GitHub does not charge a 304 against the budget.
+                    refund();
+                }
+                record(response.getHeaders());
+                return response;
+            } catch (HttpClientErrorException e) {
+                var headers = e.getResponseHeaders();
+                if (headers != null) {
+                    record(headers);
+                }
+                if (!isRateLimited(e)) {
+                    limiter.sample(System.nanoTime() - start);
+                    throw e;
+                }
+                if (budget.remaining() == 0) {
+                    rejectedBudget.increment();
+                    throw budgetExhausted();
+                }
+                backOff(attempt, headers);
+            }
+        }
+    }
+    
+    /**
+     * Admits one extra call without waiting, for work that is only worth doing when capacity is
+     * idle, such as a hedged duplicate. The call gets a {@link Priority#BRANCHES} token, so it
+     * never dips into the listing reserve, and only when nobody is queued for one; {@code false}
+     * otherwise. Nothing is counted as rejected.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (!covers(Priority.BRANCHES)) {
+                return false;
+            }
+            var now = System.nanoTime();
+            refill(now);
+            for (var queued : waiting) {
+                if (queued > 0) {
+                    return false;
+                }
+            }
+            if (now - pausedUntil < 0 || tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            spend();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public Budget budget() {
+        return budget;
+    }
+    
+    /**
+     * Whether the budget, when known, can cover one more call of this priority. Called with the
+     * lock held.
+     */
+    private boolean covers(Priority priority) {
+        var current = budget;
+        if (!current.known()) {
+            return true;
+        }
+        var floor = priority == Priority.BRANCHES ? listingReserve : 0;
+        return current.remaining() > floor;
+    }
+    
+    /**
+     * Takes an admitted call off the known budget. Called with the lock held.
+     */
+    private void spend() {
+        var current = budget;
+        if (current.known() && current.remaining() > 0) {
+            budget = new Budget(current.remaining() - 1, current.limit(), current.reset());
+        }
+    }
+    
+    private void refund() {
+        lock.lock();
+        try {
+            var current = budget;
+            if (current.known() && (current.limit() < 0 || current.remaining() < current.limit())) {
+                budget = new Budget(current.remaining() + 1, current.limit(), current.reset());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private GitHubApiException budgetExhausted() {
+        var seconds = Math.max(0, Duration.between(Instant.now(), budget.reset()).toSeconds());
+        return new GitHubApiException("GitHub API rate limit exhausted, resets in " + seconds + "s", 503);
+    }
+    
+    private void acquire(Priority priority) {
+        var deadline = System.nanoTime() + maxWaitNanos;
+        lock.lock();
+        try {
+            waiting[priority.ordinal()]++;
+            try {
+                while (true) {
+                    if (!covers(priority)) {
+                        rejectedBudget.increment();
+                        throw budgetExhausted();
+                    }
+                    var now = System.nanoTime();
+                    refill(now);
+                    if (now - pausedUntil >= 0 && tokens >= 1 && !higherPriorityWaiting(priority)) {
+                        tokens -= 1;
+                        spend();
+                        return;
+                    }
+                    var remaining = deadline - now;
+                    if (remaining <= 0) {
+                        rejectedQueue.increment();
+                        throw new GitHubApiException("Too many queued GitHub API calls, try again later", 503);
+                    }
+                    long untilReady;
+                    if (now - pausedUntil < 0) {
+                        untilReady = pausedUntil - now;
+                    } else if (tokens < 1) {
+                        untilReady = (long) Math.ceil((1 - tokens) / permitsPerNano);
+                    } else {
+                        // Blocked behind a higher priority waiter, which signals once it is through.
+                        untilReady = remaining;
+                    }
+                    changed.awaitNanos(Math.max(1, Math.min(remaining, untilReady)));
+                }
+            } finally {
+                waiting[priority.ordinal()]--;
+                changed.signalAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while waiting to call the GitHub API", 500);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private boolean higherPriorityWaiting(Priority priority) {
+        for (var i = 0; i < priority.ordinal(); i++) {
+            if (waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+    
+    /**
+     * Pauses every caller, not just this one, since a secondary limit applies to the whole client.
+     */
+    private void backOff(int attempt, HttpHeaders headers) {
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        long delay;
+        if (retryAfter != null && retryAfter.chars().allMatch(Character::isDigit)) {
+            delay = TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter));
+        } else {
+            var ceiling = initialBackoffNanos << Math.min(attempt, 20);
+            delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        }
+        if (attempt >= maxRetries || delay > maxWaitNanos) {
+            throw new GitHubApiException("GitHub API secondary rate limit hit, try again later", 429);
+        }
+        
+        secondaryLimitBackoffs.increment();
+        lock.lock();
+        try {
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + delay);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static boolean isRateLimited(HttpClientErrorException e) {
+        var status = e.getStatusCode().value();
+        if (status == 429) {
+            return true;
+        }
+        if (status != 403) {
+            return false;
+        }
+        var headers = e.getResponseHeaders();
+        return (headers != null && (headers.containsKey(HttpHeaders.RETRY_AFTER) || "0".equals(headers.getFirst(REMAINING))))
+                || e.getResponseBodyAsString().toLowerCase(Locale.ROOT).contains("rate limit");
+    }
+    
+    private void record(HttpHeaders headers) {
+        var remaining = headers.getFirst(REMAINING);
+        var reset = headers.getFirst(RESET);
+        if (remaining == null || reset == null) {
+            return;
+        }
+        Budget reported;
+        try {
+            var limit = headers.getFirst(LIMIT);
+            reported = new Budget(
+                    Integer.parseInt(remaining),
+                    limit == null ? -1 : Integer.parseInt(limit),
+                    Instant.ofEpochSecond(Long.parseLong(reset)));
+        } catch (NumberFormatException ignored) {
+            // Malformed headers leave the last known budget in place.
+            return;
+        }
+        lock.lock();
+        try {
+            var current = budget;
+            if (current.remaining() < 0 || reported.reset().isAfter(current.reset())) {
+                budget = reported;
+            } else if (reported.reset().equals(current.reset()) && reported.remaining() < current.remaining()) {
+                budget = new Budget(reported.remaining(), reported.limit(), current.reset());
+            }
+            // A response from an earlier window, or reporting more than is left locally, arrived late.
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Rate-limit budget: as reported by GitHub, less the calls admitted since; {@code -1} when
+     * not (yet) known.
+     */
+    public record Budget(int remaining, int limit, Instant reset) {
+        
+        /**
+         * Whether the budget is known and its window has not reset yet.
+         */
+        boolean known() {
+            return remaining >= 0 && !Instant.now().isAfter(reset);
+        }
+    }
+}
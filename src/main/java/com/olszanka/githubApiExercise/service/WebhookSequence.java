@@ -0,0 +1,36 @@
+package com.olszanka.githubApiExercise.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts webhook changes per user, so a load that was already running when a webhook arrived
+ * does not store its result over the change. A load reads {@link #current} before it starts
+ * and its result is only kept while the value is unchanged.
+ * <p>
+ * Users share one of a fixed number of counters by hash; a change to one user at most drops a
+ * concurrent load of another that shares its counter, which the next request repeats.
+ */
+@Component
+public class WebhookSequence {
+    
+    private static final int STRIPES = 1024;
+    
+    private final AtomicLongArray sequences = new AtomicLongArray(STRIPES);
+    
+    public long current(String key) {
+        return sequences.get(stripe(key));
+    }
+    
+    /**
+     * Marks a change to the user's result; call before the change is applied.
+     */
+    public void advance(String key) {
+        sequences.incrementAndGet(stripe(key));
+    }
+    
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,249 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.dto.ErrorResponseDto;
+import com.olszanka.githubApiExercise.dto.RepositoryDto;
+import com.olszanka.githubApiExercise.service.GitHubApiService.GitHubApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies GitHub webhook deliveries to the results held for a user, so hot results and
+ * snapshots follow pushes without polling.
+ * <p>
+ * Deliveries must carry an {@code X-Hub-Signature-256} HMAC-SHA256 of the body made with
+ * {@code github.api.webhook.secret}; without a secret the endpoint is off. Changes are applied
+ * to the one affected repository, keeping the result's age: a push sets or removes a branch's
+ * head, a deleted branch is removed, a deleted, privatized or renamed repository is removed or
+ * renamed. Anything that cannot be applied from the payload alone, such as a new repository or
+ * a branch created without a known head, drops the user's result so the next request fetches
+ * it. Fork events change nothing, as forks are never listed. Loads that were running when a
+ * change arrived do not keep their result ({@link WebhookSequence}).
+ */
+@Service
+public class WebhookService {
+    
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+    
+    private final HotUserCache hotUsers;
+    private final SnapshotStore snapshots;
+    private final RepositoryBranchCache branchCache;
+    private final WebhookSequence webhookSequence;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final SecretKeySpec secret;
+    
+    public WebhookService(HotUserCache hotUsers,
+                          SnapshotStore snapshots,
+                          RepositoryBranchCache branchCache,
+                          WebhookSequence webhookSequence,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${github.api.webhook.secret:}") String secret) {
+        this.hotUsers = hotUsers;
+        this.snapshots = snapshots;
+        this.branchCache = branchCache;
+        this.webhookSequence = webhookSequence;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.secret = secret.isEmpty() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+    
+    public ResponseEntity<?> handleDelivery(String event, String signature, byte[] payload) {
+        try {
+            verify(signature, payload);
+            if (event == null || event.isBlank()) {
+                throw new GitHubApiException("Missing X-GitHub-Event header", 400);
+            }
+            apply(event, readPayload(payload));
+            Counter.builder("github.webhooks")
+                    .tag("event", event)
+                    .description("Verified webhook deliveries, by event")
+                    .register(meterRegistry)
+                    .increment();
+            return ResponseEntity.noContent().build();
+        } catch (GitHubApiException e) {
+            return ResponseEntity.status(HttpStatus.valueOf(e.getStatusCode()))
+                    .body(new ErrorResponseDto(e.getStatusCode(), e.getMessage()));
+        }
+    }
+    
+    private void verify(String signature, byte[] payload) {
+        if (secret == null) {
+            throw new GitHubApiException("Webhooks are not configured", 404);
+        }
+        if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            throw new GitHubApiException("Invalid webhook signature", 401);
+        }
+        byte[] expected;
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(secret);
+            expected = mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new GitHubApiException("Could not verify webhook signature: " + e.getMessage(), 500);
+        }
+        byte[] given;
+        try {
+            given = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new GitHubApiException("Invalid webhook signature", 401);
+        }
+        if (!MessageDigest.isEqual(expected, given)) {
+            throw new GitHubApiException("Invalid webhook signature", 401);
+        }
+    }
+    
+    private JsonNode readPayload(byte[] payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (IOException e) {
+            throw new GitHubApiException("Invalid webhook payload", 400);
+        }
+    }
+    
+    private void apply(String event, JsonNode payload) {
+        var repository = payload.path("repository");
+        var owner = repository.path("owner").path("login").asText("");
+        var name = repository.path("name").asText("");
+        if (owner.isEmpty() || name.isEmpty() || repository.path("fork").asBoolean(false)) {
+            return;
+        }
+        switch (event) {
+            case "push" -> {
+                var ref = payload.path("ref").asText("");
+                if (!ref.startsWith(BRANCH_REF_PREFIX)) {
+                    return;
+                }
+                var branch = ref.substring(BRANCH_REF_PREFIX.length());
+                branchCache.evict(owner, name);
+                update(owner, payload.path("deleted").asBoolean(false)
+                        ? withBranches(name, branches -> withoutBranch(branches, branch))
+                        : withBranches(name, branches -> withBranch(branches, branch, payload.path("after").asText())));
+            }
+            case "create", "delete" -> {
+                if (!"branch".equals(payload.path("ref_type").asText())) {
+                    return;
+                }
+                var branch = payload.path("ref").asText();
+                branchCache.evict(owner, name);
+                // A create event carries no head; it is usually already known from the push.
+                update(owner, "delete".equals(event)
+                        ? withBranches(name, branches -> withoutBranch(branches, branch))
+                        : withBranches(name, branches -> hasBranch(branches, branch) ? branches : null));
+            }
+            case "repository" -> {
+                branchCache.evict(owner, name);
+                switch (payload.path("action").asText()) {
+                    case "deleted", "privatized" -> update(owner, repositories -> withoutRepository(repositories, name));
+                    case "renamed" -> {
+                        var previousName = payload.path("changes").path("repository").path("name").path("from").asText(name);
+                        update(owner, repositories -> renamed(repositories, previousName, name));
+                    }
+                    case "transferred" -> {
+                        var previousOwner = payload.path("changes").path("owner").path("from").path("user").path("login").asText("");
+                        if (!previousOwner.isEmpty()) {
+                            update(previousOwner, repositories -> withoutRepository(repositories, name));
+                        }
+                        update(owner, repositories -> null);
+                    }
+                    default -> update(owner, repositories -> null);
+                }
+            }
+            default -> {
+                // fork, ping and other events do not change any listed repository
+            }
+        }
+    }
+    
+    /**
+     * Applies the change to the user's held results. The {@link WebhookSequence} is advanced
+     * first, so a load already running for the user does not store its older result over it.
+     */
+    private void update(String owner, UnaryOperator<List<RepositoryDto>> update) {
+        var key = owner.toLowerCase(Locale.ROOT);
+        webhookSequence.advance(key);
+        hotUsers.update(key, update);
+        snapshots.updateRepositories(key, update);
+    }
+    
+    /**
+     * Replaces the branches of one repository; {@code null} when the repository is not in the
+     * result or the branches update gives up.
+     */
+    private static UnaryOperator<List<RepositoryDto>> withBranches(String name, UnaryOperator<List<BranchDto>> update) {
+        return repositories -> {
+            var result = new ArrayList<RepositoryDto>(repositories.size());
+            var found = false;
+            for (var repository : repositories) {
+                if (!repository.name().equalsIgnoreCase(name)) {
+                    result.add(repository);
+                    continue;
+                }
+                var branches = update.apply(repository.branches());
+                if (branches == null) {
+                    return null;
+                }
+                result.add(new RepositoryDto(repository.name(), repository.ownerLogin(), branches));
+                found = true;
+            }
+            return found ? result : null;
+        };
+    }
+    
+    private static List<BranchDto> withBranch(List<BranchDto> branches, String branch, String sha) {
+        var result = new ArrayList<BranchDto>(branches.size() + 1);
+        var replaced = false;
+        for (var existing : branches) {
+            if (existing.name().equals(branch)) {
+                result.add(new BranchDto(branch, sha));
+                replaced = true;
+            } else {
+                result.add(existing);
+            }
+        }
+        if (!replaced) {
+            result.add(new BranchDto(branch, sha));
+        }
+        return result;
+    }
+    
+    private static List<BranchDto> withoutBranch(List<BranchDto> branches, String branch) {
+        return branches.stream().filter(existing -> !existing.name().equals(branch)).toList();
+    }
+    
+    private static boolean hasBranch(List<BranchDto> branches, String branch) {
+        return branches.stream().anyMatch(existing -> existing.name().equals(branch));
+    }
+    
+    private static List<RepositoryDto> withoutRepository(List<RepositoryDto> repositories, String name) {
+        return repositories.stream().filter(repository -> !repository.name().equalsIgnoreCase(name)).toList();
+    }
+    
+    private static List<RepositoryDto> renamed(List<RepositoryDto> repositories, String previousName, String name) {
+        return repositories.stream()
+                .map(repository -> repository.name().equalsIgnoreCase(previousName)
+                        ? new RepositoryDto(name, repository.ownerLogin(), repository.branches())
+                        : repository)
+                .toList();
+    }
+}
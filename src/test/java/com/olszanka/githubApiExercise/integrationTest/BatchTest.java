@@ -0,0 +1,105 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class BatchTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testBatch_ShouldWriteOneResultPerDistinctUsername() {
+        // Given
+        var username = "batchuser";
+        var missing = "missingbatchuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"batch-repo\",\"fork\":false,\"owner\":{\"login\":\"batchuser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/batch-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/users/" + missing + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getErrorResponse("user_not_found"))));
+
+        // When & Then - duplicates are answered once, failures are reported per user
+        webTestClient.post()
+                .uri("/api/github/repositories:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("usernames", List.of(username, missing, "BatchUser")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> {
+                    var lines = body.strip().split("\n");
+                    assertEquals(2, lines.length);
+                    assertTrue(body.contains("{\"username\":\"batchuser\",\"repositories\":[{\"name\":\"batch-repo\""));
+                    assertTrue(body.contains("{\"username\":\"missingbatchuser\",\"error\":{\"status\":404,\"message\":\"User not found\"}}"));
+                });
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testBatch_ShouldReturn400_WhenNoUsernamesGiven() {
+        // When & Then
+        webTestClient.post()
+                .uri("/api/github/repositories:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("usernames", List.of()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("No usernames given");
+    }
+}
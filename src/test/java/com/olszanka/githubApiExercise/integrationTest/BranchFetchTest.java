@@ -0,0 +1,146 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.branch-fetch.mode=concurrent",
+        "github.api.branch-fetch.timeout=2s",
+        "github.api.resilience.hedge.enabled=false"
+})
+@AutoConfigureWebTestClient
+class BranchFetchTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldKeepListingOrder_WhenBranchesFinishOutOfOrder() {
+        // Given
+        var username = "outoforderuser";
+
+        stubRepositories(username, "slow-repo", "fast-repo", "medium-repo");
+        stubBranches(username, "slow-repo", "aaa111", 1000);
+        stubBranches(username, "fast-repo", "bbb222", 0);
+        stubBranches(username, "medium-repo", "ccc333", 500);
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("slow-repo")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("aaa111")
+                .jsonPath("$[1].name").isEqualTo("fast-repo")
+                .jsonPath("$[1].branches[0].last_commit_sha").isEqualTo("bbb222")
+                .jsonPath("$[2].name").isEqualTo("medium-repo")
+                .jsonPath("$[2].branches[0].last_commit_sha").isEqualTo("ccc333");
+
+        // every branch request reached the server before the slowest one was answered
+        var arrivals = branchArrivals(username);
+        assertEquals(3, arrivals.size());
+        var slowAnswered = arrivals.get("slow-repo").plusMillis(1000);
+        arrivals.forEach((repository, arrived) ->
+                assertTrue(arrived.isBefore(slowAnswered), repository + " was only requested after slow-repo answered"));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldReturn504_WhenFanOutPassesDeadline() {
+        // Given
+        var username = "deadlineuser";
+
+        stubRepositories(username, "quick-repo", "stuck-repo");
+        stubBranches(username, "quick-repo", "aaa111", 0);
+        stubBranches(username, "stuck-repo", "bbb222", 5000);
+
+        // When & Then - answered at the 2s deadline although stuck-repo takes 5s
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isEqualTo(504)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(504)
+                .jsonPath("$.message").isEqualTo("Timed out while retrieving branches for user: " + username);
+
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/stuck-repo/branches")));
+    }
+
+    /**
+     * When each branch request of {@code username} reached WireMock, by repository name.
+     */
+    private Map<String, Instant> branchArrivals(String username) {
+        var prefix = "/repos/" + username + "/";
+        var arrivals = new HashMap<String, Instant>();
+        for (var event : wireMockServer.getAllServeEvents()) {
+            var url = event.getRequest().getUrl();
+            if (url.startsWith(prefix) && url.contains("/branches")) {
+                var repository = url.substring(prefix.length(), url.indexOf("/branches"));
+                arrivals.put(repository, event.getRequest().getLoggedDate().toInstant());
+            }
+        }
+        return arrivals;
+    }
+
+    static void stubRepositories(String username, String... names) {
+        var body = new StringBuilder("[");
+        for (var i = 0; i < names.length; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"name\":\"").append(names[i]).append("\",\"fork\":false,\"owner\":{\"login\":\"")
+                    .append(username).append("\"}}");
+        }
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body.append(']').toString())));
+    }
+
+    static void stubBranches(String username, String repository, String sha, int delayMillis) {
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repository + "/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(delayMillis)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"" + sha + "\"}}]")));
+    }
+}
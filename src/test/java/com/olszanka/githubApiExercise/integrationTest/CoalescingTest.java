@@ -0,0 +1,138 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "github.api.resilience.hedge.enabled=false")
+@AutoConfigureWebTestClient
+class CoalescingTest {
+
+    private static final int CALLERS = 5;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldShareOneUpstreamLoad_WhenRequestedConcurrently() throws Exception {
+        // Given
+        var username = "coalesceduser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(1000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"shared-repo\",\"fork\":false,\"owner\":{\"login\":\"coalesceduser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/shared-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+
+        var coalescedBefore = coalescedUsers();
+
+        // When & Then
+        requestConcurrently(username, response -> response
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("shared-repo")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("abc123"));
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/shared-repo/branches")));
+        assertEquals(CALLERS - 1, coalescedUsers() - coalescedBefore);
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldShareErrorWithAllJoiners() throws Exception {
+        // Given
+        var username = "coalescedmissinguser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)
+                        .withFixedDelay(1000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"message\":\"Not Found\"}")));
+
+        var coalescedBefore = coalescedUsers();
+
+        // When & Then
+        requestConcurrently(username, response -> response
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("User not found"));
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+        assertEquals(CALLERS - 1, coalescedUsers() - coalescedBefore);
+    }
+
+    private void requestConcurrently(String username, Consumer<WebTestClient.ResponseSpec> assertion) throws Exception {
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(CALLERS)) {
+            var calls = new ArrayList<CompletableFuture<Void>>();
+            for (var i = 0; i < CALLERS; i++) {
+                calls.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    assertion.accept(webTestClient.get()
+                            .uri("/api/github/repositories/" + username)
+                            .exchange());
+                }, executor));
+            }
+            start.countDown();
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get();
+        }
+    }
+
+    private double coalescedUsers() {
+        return meterRegistry.get("github.singleflight.coalesced").tag("scope", "user").counter().count();
+    }
+}
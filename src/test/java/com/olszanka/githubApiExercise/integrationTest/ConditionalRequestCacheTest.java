@@ -0,0 +1,90 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class ConditionalRequestCacheTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldReuseCachedBody_WhenUpstreamAnswers304() {
+        // Given
+        var username = "etaguser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"repos-v1\"")
+                        .withBody("[{\"name\":\"cached-repo\",\"fork\":false,\"owner\":{\"login\":\"etaguser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withHeader("If-None-Match", equalTo("\"repos-v1\""))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(304)));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/cached-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"branches-v1\"")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/cached-repo/branches"))
+                .withHeader("If-None-Match", equalTo("\"branches-v1\""))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(304)));
+
+        // When & Then - both calls return the same body, the second one from revalidated cache entries
+        for (var attempt = 0; attempt < 2; attempt++) {
+            webTestClient.get()
+                    .uri("/api/github/repositories/" + username)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$[0].name").isEqualTo("cached-repo")
+                    .jsonPath("$[0].branches[0].name").isEqualTo("main")
+                    .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("abc123def456789");
+        }
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos"))
+                .withHeader("If-None-Match", equalTo("\"repos-v1\"")));
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/cached-repo/branches"))
+                .withHeader("If-None-Match", equalTo("\"branches-v1\"")));
+    }
+}
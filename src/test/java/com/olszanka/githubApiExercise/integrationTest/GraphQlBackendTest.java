@@ -0,0 +1,111 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "github.api.backend=graphql")
+@AutoConfigureWebTestClient
+class GraphQlBackendTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldMapBatchedGraphQlPages() {
+        // Given
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo("testuser")))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":{\"repositoryOwner\":{\"repositories\":{" +
+                                "\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"cursor-1\"}," +
+                                "\"nodes\":[{\"name\":\"test-repo-1\",\"owner\":{\"login\":\"testuser\"}," +
+                                "\"refs\":{\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},\"nodes\":[" +
+                                "{\"name\":\"develop\",\"target\":{\"oid\":\"def456ghi789012\"}}," +
+                                "{\"name\":\"main\",\"target\":{\"oid\":\"abc123def456789\"}}]}}]}}}}")));
+
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.cursor", equalTo("cursor-1")))
+                .atPriority(1)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":{\"repositoryOwner\":{\"repositories\":{" +
+                                "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":\"cursor-2\"}," +
+                                "\"nodes\":[{\"name\":\"test-repo-2\",\"owner\":{\"login\":\"testuser\"}," +
+                                "\"refs\":{\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},\"nodes\":[" +
+                                "{\"name\":\"master\",\"target\":{\"oid\":\"xyz789abc123456\"}}]}}]}}}}")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/testuser")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("test-repo-1")
+                .jsonPath("$[0].owner_login").isEqualTo("testuser")
+                .jsonPath("$[0].branches[0].name").isEqualTo("develop")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("def456ghi789012")
+                .jsonPath("$[0].branches[1].name").isEqualTo("main")
+                .jsonPath("$[1].name").isEqualTo("test-repo-2")
+                .jsonPath("$[1].branches[0].last_commit_sha").isEqualTo("xyz789abc123456");
+
+        verify(2, postRequestedFor(urlEqualTo("/graphql")));
+        verify(2, postRequestedFor(urlEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.query", containing("privacy: PUBLIC")))
+                .withRequestBody(matchingJsonPath("$.query", containing("ownerAffiliations: OWNER"))));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldReturn404_WhenOwnerIsNull() {
+        // Given
+        stubFor(post(urlEqualTo("/graphql"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":{\"repositoryOwner\":null},\"errors\":[{\"type\":\"NOT_FOUND\"," +
+                                "\"message\":\"Could not resolve to a RepositoryOwner with the login of 'ghostuser'.\"}]}")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/ghostuser")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("User not found");
+    }
+}
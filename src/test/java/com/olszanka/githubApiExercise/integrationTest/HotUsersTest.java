@@ -0,0 +1,126 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.hot-users.min-requests=2",
+        "github.api.hot-users.interval=100ms",
+        "github.api.hot-users.refresh-after=500ms"
+})
+@AutoConfigureWebTestClient
+class HotUsersTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldServeHotUserFromMemoryAndRefreshInBackground() throws InterruptedException {
+        // Given
+        var username = "hotuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"hot-repo\",\"fork\":false,\"owner\":{\"login\":\"hotuser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/hot-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789\"}}]")));
+
+        // When & Then - the second request makes the user hot, the third one is answered from memory
+        for (var attempt = 0; attempt < 3; attempt++) {
+            webTestClient.get()
+                    .uri("/api/github/repositories/" + username)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$[0].name").isEqualTo("hot-repo");
+        }
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+
+        // When & Then - a new repository is picked up by the background refresh alone; the newer stub wins
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"new-repo\",\"fork\":false,\"owner\":{\"login\":\"hotuser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/new-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"def456abc123789\"}}]")));
+
+        var refreshed = false;
+        for (var attempt = 0; attempt < 50 && !refreshed; attempt++) {
+            Thread.sleep(100);
+            refreshed = !findAll(getRequestedFor(urlPathEqualTo("/repos/" + username + "/new-repo/branches"))).isEmpty();
+        }
+        assertTrue(refreshed, "hot user was not refreshed");
+
+        // When & Then - once the refresh has stored it, new-repo is served from memory: every
+        // request is a hot-user hit, so none of them loads from GitHub
+        var served = false;
+        for (var attempt = 0; attempt < 50 && !served; attempt++) {
+            var hitsBefore = hits();
+            var body = webTestClient.get()
+                    .uri("/api/github/repositories/" + username)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class)
+                    .returnResult()
+                    .getResponseBody();
+            assertEquals(1.0, hits() - hitsBefore, "hot user was not answered from memory");
+            served = body != null && body.contains("new-repo");
+            if (!served) {
+                Thread.sleep(100);
+            }
+        }
+        assertTrue(served, "refreshed result was not served");
+    }
+
+    private double hits() {
+        return meterRegistry.get("github.hotusers.hits").counter().count();
+    }
+}
@@ -0,0 +1,85 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.http.client=apache",
+        "github.api.branch-fetch.mode=sequential",
+        "github.api.resilience.hedge.enabled=false"
+})
+@AutoConfigureWebTestClient
+class HttpTransportTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldReusePooledConnection_AcrossSequentialUpstreamCalls() {
+        // Given
+        var usernames = new String[] {"keepaliveuser1", "keepaliveuser2", "keepaliveuser3"};
+        for (var username : usernames) {
+            stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("[{\"name\":\"repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+
+            stubFor(get(urlPathEqualTo("/repos/" + username + "/repo/branches"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+        }
+        var openedBefore = meterRegistry.get("github.http.connections.opened").counter().count();
+
+        // When
+        for (var username : usernames) {
+            webTestClient.get()
+                    .uri("/api/github/repositories/" + username)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        // Then
+        verify(6, getRequestedFor(urlMatching("/(users|repos)/.*")));
+        assertEquals(1.0, meterRegistry.get("github.http.connections.opened").counter().count() - openedBefore);
+        assertEquals(1.0, meterRegistry.get("github.http.pool.available").gauge().value());
+    }
+}
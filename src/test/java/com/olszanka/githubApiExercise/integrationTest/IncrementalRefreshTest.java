@@ -0,0 +1,96 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class IncrementalRefreshTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldRefetchBranchesOnlyForPushedRepositories() {
+        // Given
+        var username = "pushuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .inScenario("push")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(repositories("2024-06-01T12:00:00Z", "2024-06-01T12:00:00Z")))
+                .willSetStateTo("pushed"));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .inScenario("push")
+                .whenScenarioStateIs("pushed")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(repositories("2024-06-01T12:00:00Z", "2024-06-02T08:30:00Z"))));
+
+        for (var repo : new String[] {"quiet-repo", "active-repo"}) {
+            stubFor(get(urlPathEqualTo("/repos/" + username + "/" + repo + "/branches"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789\"}}]")));
+        }
+
+        // When & Then - the second call only fetches branches of the repository that was pushed to
+        for (var attempt = 0; attempt < 2; attempt++) {
+            webTestClient.get()
+                    .uri("/api/github/repositories/" + username)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$[0].name").isEqualTo("quiet-repo")
+                    .jsonPath("$[0].branches[0].name").isEqualTo("main")
+                    .jsonPath("$[1].name").isEqualTo("active-repo")
+                    .jsonPath("$[1].branches[0].name").isEqualTo("main");
+        }
+
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/quiet-repo/branches")));
+        verify(2, getRequestedFor(urlPathEqualTo("/repos/" + username + "/active-repo/branches")));
+    }
+
+    private static String repositories(String quietPushedAt, String activePushedAt) {
+        return "[{\"name\":\"quiet-repo\",\"fork\":false,\"owner\":{\"login\":\"pushuser\"},\"pushed_at\":\"" + quietPushedAt + "\"},"
+                + "{\"name\":\"active-repo\",\"fork\":false,\"owner\":{\"login\":\"pushuser\"},\"pushed_at\":\"" + activePushedAt + "\"}]";
+    }
+}
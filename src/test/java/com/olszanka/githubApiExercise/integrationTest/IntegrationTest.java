@@ -53,13 +53,7 @@ class IntegrationTest {
         var username = "testuser";
 
         // Mock GitHub API responses
-        stubFor(get(urlEqualTo("/users/" + username))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"login\":\"testuser\"}")));
-
-        stubFor(get(urlEqualTo("/users/" + username + "/repos"))
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -68,7 +62,7 @@ class IntegrationTest {
                                 "{\"name\":\"test-repo-2\",\"fork\":false,\"owner\":{\"login\":\"testuser\"}}" +
                                 "]")));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-1/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-1/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -77,7 +71,7 @@ class IntegrationTest {
                                 "{\"name\":\"develop\",\"commit\":{\"sha\":\"def456ghi789012\"}}" +
                                 "]")));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-2/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-2/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -103,6 +97,8 @@ class IntegrationTest {
                 .jsonPath("$[1].owner_login").isEqualTo("testuser")
                 .jsonPath("$[1].branches[0].name").isEqualTo("master")
                 .jsonPath("$[1].branches[0].last_commit_sha").isEqualTo("xyz789abc123456");
+
+        verify(0, getRequestedFor(urlPathEqualTo("/users/" + username)));
     }
 
     @Test
@@ -111,7 +107,7 @@ class IntegrationTest {
         var username = "nonexistentuser";
 
         // Mock GitHub API response for non-existent user
-        stubFor(get(urlEqualTo("/users/" + username))
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
                 .willReturn(aResponse()
                         .withStatus(404)
                         .withHeader("Content-Type", "application/json")
@@ -126,6 +122,8 @@ class IntegrationTest {
                 .expectBody()
                 .jsonPath("$.status").isEqualTo(404)
                 .jsonPath("$.message").isEqualTo("User not found");
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
     }
 
     @Test
@@ -134,13 +132,7 @@ class IntegrationTest {
         var username = "testuser";
 
         // Mock GitHub API responses
-        stubFor(get(urlEqualTo("/users/" + username))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\"login\":\"testuser\"}")));
-
-        stubFor(get(urlEqualTo("/users/" + username + "/repos"))
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -150,7 +142,7 @@ class IntegrationTest {
                                 "{\"name\":\"forked-repo\",\"fork\":true,\"owner\":{\"login\":\"testuser\"}}" +
                                 "]")));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-1/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-1/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -158,7 +150,7 @@ class IntegrationTest {
                                 "{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789\"}}" +
                                 "]")));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-2/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-2/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -0,0 +1,99 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.http.client=jdk",
+        "github.api.resilience.hedge.enabled=false"
+})
+@AutoConfigureWebTestClient
+class JdkHttpTransportTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Responses below are compressed by the stubs themselves
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089).gzipDisabled(true));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldRequestAndInflateGzip_OnJdkClient() throws IOException {
+        // Given
+        var username = "jdkgzipuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withHeader("Accept-Encoding", containing("gzip"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Content-Encoding", "gzip")
+                        .withBody(gzip("[{\"name\":\"gzip-repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]"))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/gzip-repo/branches"))
+                .withHeader("Accept-Encoding", containing("gzip"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Content-Encoding", "gzip")
+                        .withBody(gzip("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]"))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("gzip-repo")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("abc123");
+
+        // Plain HTTP opens no TLS connections, but the counter is there to compare with apache
+        assertNotNull(meterRegistry.find("github.http.connections.opened").counter());
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.limiter.initial-limit=20",
+        "github.api.limiter.min-limit=2",
+        "github.api.limiter.max-limit=20",
+        "github.api.limiter.queue-timeout=30s",
+        "github.api.limiter.smoothing=1.0",
+        "github.api.rate-limit.requests-per-second=5",
+        "github.api.rate-limit.burst=6",
+        "github.api.rate-limit.max-wait=30s",
+        "github.api.branch-fetch.timeout=30s",
+        "github.api.resilience.hedge.enabled=false"
+})
+@AutoConfigureWebTestClient
+class LimiterAdaptationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldShrinkLimit_WhenTokenBucketSaturates() throws Exception {
+        // Given - GitHub itself answers at once throughout
+        var client = webTestClient.mutate().responseTimeout(Duration.ofSeconds(60)).build();
+        for (var i = 0; i < 18; i++) {
+            stubRepositories("adaptuser" + i);
+        }
+
+        // Unhurried loads set the long-term latency
+        for (var i = 0; i < 2; i++) {
+            client.get()
+                    .uri("/api/github/repositories/adaptuser" + i)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+        var initial = limit();
+
+        // When - far more calls than the 5/s token bucket admits, so they queue for admission
+        var requests = new ArrayList<CompletableFuture<Void>>();
+        for (var i = 2; i < 18; i++) {
+            var username = "adaptuser" + i;
+            requests.add(CompletableFuture.runAsync(() -> client.get()
+                    .uri("/api/github/repositories/" + username)
+                    .exchange()
+                    .expectStatus().isOk()));
+        }
+        var lowest = initial;
+        var all = CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new));
+        while (!all.isDone()) {
+            lowest = Math.min(lowest, limit());
+            Thread.sleep(20);
+        }
+        all.get();
+
+        // Then
+        assertTrue(lowest < initial, "limit stayed at " + initial + " while calls queued for admission");
+    }
+
+    private double limit() {
+        return meterRegistry.get("github.limiter.limit").gauge().value();
+    }
+
+    private static void stubRepositories(String username) {
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+    }
+}
@@ -0,0 +1,152 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.limiter.initial-limit=1",
+        "github.api.limiter.min-limit=1",
+        "github.api.limiter.max-limit=1",
+        "github.api.limiter.queue-timeout=10ms",
+        "github.api.hot-users.min-requests=1",
+        "github.api.resilience.hedge.enabled=false"
+})
+@AutoConfigureWebTestClient
+class LimiterTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldShedLiveLoadsButServeCachedUsersWhenSaturated() throws Exception {
+        // Given
+        var cachedUser = "limitercached";
+        var slowUser = "limiterslow";
+        var shedUser = "limitershed";
+
+        stubRepositories(cachedUser, 0);
+        stubRepositories(slowUser, 1500);
+        stubRepositories(shedUser, 0);
+
+        webTestClient.get()
+                .uri("/api/github/repositories/" + cachedUser)
+                .exchange()
+                .expectStatus().isOk();
+
+        var slowRequest = CompletableFuture.runAsync(() -> webTestClient.get()
+                .uri("/api/github/repositories/" + slowUser)
+                .exchange()
+                .expectStatus().isOk());
+        Thread.sleep(300);
+
+        // When & Then
+        var started = System.nanoTime();
+        webTestClient.get()
+                .uri("/api/github/repositories/" + shedUser)
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503)
+                .jsonPath("$.message").isEqualTo("Too many requests in progress, retry later");
+        assertTrue(System.nanoTime() - started < 1_000_000_000L, "shed request should fail fast");
+
+        webTestClient.get()
+                .uri("/api/github/repositories/" + cachedUser)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("repo");
+
+        slowRequest.get();
+        verify(0, getRequestedFor(urlPathEqualTo("/users/" + shedUser + "/repos")));
+    }
+
+    @Test
+    void testBatch_ShouldHoldOneSlotForAllItsUsers() throws Exception {
+        // Given
+        var first = "limiterbatchone";
+        var second = "limiterbatchtwo";
+        var shedUser = "limiterbatchshed";
+
+        stubRepositories(first, 800);
+        stubRepositories(second, 800);
+        stubRepositories(shedUser, 0);
+
+        var batch = CompletableFuture.supplyAsync(() -> webTestClient.post()
+                .uri("/api/github/repositories:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("usernames", List.of(first, second)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody());
+        Thread.sleep(300);
+
+        // When & Then - the batch takes the only slot, but none of its own users is shed
+        webTestClient.get()
+                .uri("/api/github/repositories/" + shedUser)
+                .exchange()
+                .expectStatus().isEqualTo(503);
+
+        var body = batch.get();
+        assertEquals(2, body.strip().split("\n").length);
+        assertFalse(body.contains("\"error\""), body);
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + first + "/repos")));
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + second + "/repos")));
+    }
+
+    private static void stubRepositories(String username, int delayMillis) {
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(delayMillis)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+    }
+}
@@ -80,25 +80,19 @@ class MockDataTest {
         var username = "testuser";
 
         // Mock GitHub API responses using MockDataLoader
-        stubFor(get(urlEqualTo("/users/" + username))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody(MockDataLoader.getUserResponse())));
-
-        stubFor(get(urlEqualTo("/users/" + username + "/repos"))
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
                         .withBody(MockDataLoader.getRepositoriesResponse())));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-1/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-1/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
                         .withBody(MockDataLoader.getBranchesResponse("test-repo-1"))));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-2/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-2/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -130,25 +124,19 @@ class MockDataTest {
         var username = "testuser";
 
         // Mock GitHub API responses
-        stubFor(get(urlEqualTo("/users/" + username))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody(MockDataLoader.getUserResponse())));
-
-        stubFor(get(urlEqualTo("/users/" + username + "/repos"))
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
                         .withBody(MockDataLoader.getRepositoriesResponse())));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-1/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-1/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
                         .withBody(MockDataLoader.getBranchesResponse("test-repo-1"))));
 
-        stubFor(get(urlEqualTo("/repos/" + username + "/test-repo-2/branches"))
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-2/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
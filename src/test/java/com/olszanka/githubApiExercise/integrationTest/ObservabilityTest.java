@@ -0,0 +1,124 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class ObservabilityTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldRecordUpstreamCallsAndPhases() {
+        // Given
+        var username = "observeduser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[" +
+                                "{\"name\":\"observed-repo-1\",\"fork\":false,\"owner\":{\"login\":\"observeduser\"}}," +
+                                "{\"name\":\"observed-repo-2\",\"fork\":false,\"owner\":{\"login\":\"observeduser\"}}" +
+                                "]")));
+
+        stubFor(get(urlPathMatching("/repos/" + username + "/observed-repo-[12]/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+
+        var reposBefore = upstreamCalls("repos", "200");
+        var branchesBefore = upstreamCalls("branches", "200");
+        var repositoriesPhaseBefore = phases("repositories");
+        var serializationBefore = phases("serialization");
+
+        // When
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk();
+
+        // Then
+        assertEquals(1, upstreamCalls("repos", "200") - reposBefore);
+        assertEquals(2, upstreamCalls("branches", "200") - branchesBefore);
+        assertEquals(1, phases("repositories") - repositoriesPhaseBefore);
+        assertEquals(1, phases("serialization") - serializationBefore);
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldNotTimeErrorBodiesAsSerialization() {
+        // Given
+        var username = "observedmissinguser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"message\":\"Not Found\"}")));
+
+        var notFoundBefore = upstreamCalls("repos", "404");
+        var serializationBefore = phases("serialization");
+
+        // When
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // Then
+        assertEquals(1, upstreamCalls("repos", "404") - notFoundBefore);
+        assertEquals(0, phases("serialization") - serializationBefore);
+    }
+
+    private long upstreamCalls(String endpoint, String status) {
+        return count(meterRegistry.find("github.upstream").tag("endpoint", endpoint).tag("status", status).timer());
+    }
+
+    private long phases(String phase) {
+        return count(meterRegistry.find("github.request.phase").tag("phase", phase).timer());
+    }
+
+    private static long count(Timer timer) {
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,146 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "github.api.pagination.max-pages=3")
+@AutoConfigureWebTestClient
+class PaginationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldFollowLinkHeaderAcrossAllPages() {
+        // Given
+        var username = "pageduser";
+        var reposUrl = "http://localhost:8089/users/" + username + "/repos";
+        var branchesUrl = "http://localhost:8089/repos/" + username + "/repo-3/branches";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("per_page", equalTo("100"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link",
+                                "<" + reposUrl + "?per_page=100&page=2>; rel=\"next\", " +
+                                "<" + reposUrl + "?per_page=100&page=3>; rel=\"last\"")
+                        .withBody("[{\"name\":\"repo-1\",\"fork\":false,\"owner\":{\"login\":\"pageduser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo-2\",\"fork\":true,\"owner\":{\"login\":\"pageduser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", equalTo("3"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo-3\",\"fork\":false,\"owner\":{\"login\":\"pageduser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repo-1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"aaa111\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repo-3/branches"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link", "<" + branchesUrl + "?per_page=100&page=2>; rel=\"next\"")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"bbb222\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/repo-3/branches"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"feature\",\"commit\":{\"sha\":\"ccc333\"}}]")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("repo-1")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("aaa111")
+                .jsonPath("$[1].name").isEqualTo("repo-3")
+                .jsonPath("$[1].branches.length()").isEqualTo(2)
+                .jsonPath("$[1].branches[0].name").isEqualTo("main")
+                .jsonPath("$[1].branches[1].name").isEqualTo("feature");
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldFail_WhenListHasMorePagesThanMaxPages() {
+        // Given
+        var username = "longlistuser";
+        var reposUrl = "http://localhost:8089/users/" + username + "/repos";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link",
+                                "<" + reposUrl + "?per_page=100&page=2>; rel=\"next\", " +
+                                "<" + reposUrl + "?per_page=100&page=4>; rel=\"last\"")
+                        .withBody("[{\"name\":\"repo-1\",\"fork\":false,\"owner\":{\"login\":\"longlistuser\"}}]")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isEqualTo(502)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(502)
+                .jsonPath("$.message").value(message -> assertEquals(
+                        "More than 3 pages at " + reposUrl + "; raise github.api.pagination.max-pages to read it", message));
+
+        verify(0, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")).withQueryParam("page", equalTo("2")));
+        assertEquals(1.0, meterRegistry.get("github.pagination.max.pages.exceeded").tag("endpoint", "repos").counter().count());
+    }
+}
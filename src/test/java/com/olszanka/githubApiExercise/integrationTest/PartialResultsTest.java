@@ -0,0 +1,108 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "github.api.partial-results.deadline=500ms")
+@AutoConfigureWebTestClient
+class PartialResultsTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldMarkSlowAndFailedRepositoriesIncomplete() throws InterruptedException {
+        // Given
+        var username = "partialuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"fast-repo\",\"fork\":false,\"owner\":{\"login\":\"partialuser\"}},"
+                                + "{\"name\":\"slow-repo\",\"fork\":false,\"owner\":{\"login\":\"partialuser\"}},"
+                                + "{\"name\":\"broken-repo\",\"fork\":false,\"owner\":{\"login\":\"partialuser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/fast-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/slow-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(10000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"def456\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/broken-repo/branches"))
+                .willReturn(aResponse().withStatus(404)));
+
+        var abortedBefore = abortedBranchCalls();
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username + "?partial=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("fast-repo")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("abc123")
+                .jsonPath("$[0].incomplete").doesNotExist()
+                .jsonPath("$[1].name").isEqualTo("slow-repo")
+                .jsonPath("$[1].incomplete").isEqualTo(true)
+                .jsonPath("$[1].error").isEqualTo("Timed out while retrieving branches")
+                .jsonPath("$[1].branches").isEmpty()
+                .jsonPath("$[2].name").isEqualTo("broken-repo")
+                .jsonPath("$[2].incomplete").isEqualTo(true)
+                .jsonPath("$[2].error").exists();
+
+        // The slow call is cancelled at the deadline rather than left running until it answers
+        for (var attempt = 0; attempt < 50 && abortedBranchCalls() == abortedBefore; attempt++) {
+            Thread.sleep(100);
+        }
+        assertTrue(abortedBranchCalls() > abortedBefore, "slow branches call was not cancelled");
+    }
+
+    private long abortedBranchCalls() {
+        var timer = meterRegistry.find("github.upstream").tag("endpoint", "branches").tag("status", "IO_ERROR").timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,162 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.Matchers.startsWith;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "github.api.rate-limit.listing-reserve=1")
+@AutoConfigureWebTestClient
+class RateLimitTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    // The budget is shared by the context and only drops within a reset window, so tests that
+    // spend it get a fresh one.
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void testGetUserRepositories_ShouldFailFastWith503_WhenBudgetCannotCoverBranchCalls() {
+        // Given
+        var username = "budgetuser";
+        var reset = String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond());
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Limit", "5000")
+                        .withHeader("X-RateLimit-Remaining", "1")
+                        .withHeader("X-RateLimit-Reset", reset)
+                        .withBody("[{\"name\":\"budget-repo\",\"fork\":false,\"owner\":{\"login\":\"budgetuser\"}}]")));
+
+        // When & Then - the remaining call is reserved for listings, so no branches call is made
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503)
+                .jsonPath("$.message").value(startsWith("GitHub API rate limit exhausted"));
+
+        verify(0, getRequestedFor(urlPathEqualTo("/repos/" + username + "/budget-repo/branches")));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void testGetUserRepositories_ShouldCountAdmittedCalls_WhenHeadersLagBehind() {
+        // Given
+        var username = "laggingbudgetuser";
+        var reset = String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond());
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Limit", "5000")
+                        .withHeader("X-RateLimit-Remaining", "3")
+                        .withHeader("X-RateLimit-Reset", reset)
+                        .withBody("[{\"name\":\"repo-a\",\"fork\":false,\"owner\":{\"login\":\"laggingbudgetuser\"}},"
+                                + "{\"name\":\"repo-b\",\"fork\":false,\"owner\":{\"login\":\"laggingbudgetuser\"}},"
+                                + "{\"name\":\"repo-c\",\"fork\":false,\"owner\":{\"login\":\"laggingbudgetuser\"}}]")));
+
+        // Every branch response still reports the budget seen before any of them was admitted
+        stubFor(get(urlPathMatching("/repos/" + username + "/repo-./branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Limit", "5000")
+                        .withHeader("X-RateLimit-Remaining", "3")
+                        .withHeader("X-RateLimit-Reset", reset)
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789\"}}]")));
+
+        // When & Then - 3 left with 1 reserved covers two branch calls, not three
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.message").value(startsWith("GitHub API rate limit exhausted"));
+
+        verify(lessThanOrExactly(2), getRequestedFor(urlPathMatching("/repos/" + username + "/repo-./branches")));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldRetryAfterSecondaryRateLimit() {
+        // Given
+        var username = "secondaryuser";
+        var reset = String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond());
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .inScenario("secondary-limit")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(429)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Retry-After", "1")
+                        .withBody("{\"message\":\"You have exceeded a secondary rate limit.\"}"))
+                .willSetStateTo("recovered"));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .inScenario("secondary-limit")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Limit", "5000")
+                        .withHeader("X-RateLimit-Remaining", "4999")
+                        .withHeader("X-RateLimit-Reset", reset)
+                        .withBody("[{\"name\":\"retried-repo\",\"fork\":false,\"owner\":{\"login\":\"secondaryuser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/retried-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789\"}}]")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("retried-repo")
+                .jsonPath("$[0].branches[0].name").isEqualTo("main");
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+}
@@ -0,0 +1,253 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveStackTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldReturnRepositoriesWithBranches() {
+        // Given
+        var username = "testuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getRepositoriesResponse())));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getBranchesResponse("test-repo-1"))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-2/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getBranchesResponse("test-repo-2"))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("test-repo-1")
+                .jsonPath("$[0].owner_login").isEqualTo("testuser")
+                .jsonPath("$[1].name").isEqualTo("test-repo-2");
+
+        // When & Then - the stream endpoint writes the same repositories line by line
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username + "/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> assertEquals(2, body.strip().split("\n").length));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldReturn404_WhenUserDoesNotExist() {
+        // Given
+        var username = "nonexistentreactiveuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getErrorResponse("user_not_found"))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("User not found");
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldRequestRemainingPagesAtOnce_WhenLastPageIsKnown() {
+        // Given
+        var username = "reactivepageduser";
+        var reposUrl = "http://localhost:8089/users/" + username + "/repos";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link",
+                                "<" + reposUrl + "?per_page=100&page=2>; rel=\"next\", <" + reposUrl + "?per_page=100&page=3>; rel=\"last\"")
+                        .withBody("[{\"name\":\"page-1-repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+
+        for (var page = 2; page <= 3; page++) {
+            stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                    .withQueryParam("page", equalTo(String.valueOf(page)))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withFixedDelay(600)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("[{\"name\":\"page-" + page + "-repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+        }
+
+        stubFor(get(urlPathMatching("/repos/" + username + "/page-[123]-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+
+        // When & Then - pages 2 and 3 are fetched together, not one after another
+        var started = System.nanoTime();
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].name").isEqualTo("page-1-repo")
+                .jsonPath("$[1].name").isEqualTo("page-2-repo")
+                .jsonPath("$[2].name").isEqualTo("page-3-repo");
+
+        assertTrue(System.nanoTime() - started < 1_100_000_000L, "remaining pages were fetched sequentially");
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldFail_WhenListHasMorePagesThanMaxPages() {
+        // Given
+        var username = "reactivehugeuser";
+        var reposUrl = "http://localhost:8089/users/" + username + "/repos";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link",
+                                "<" + reposUrl + "?per_page=100&page=2>; rel=\"next\", <" + reposUrl + "?per_page=100&page=101>; rel=\"last\"")
+                        .withBody("[{\"name\":\"repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+
+        var exceededBefore = exceeded();
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isEqualTo(502)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(502);
+
+        verify(0, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")).withQueryParam("page", equalTo("2")));
+        assertEquals(1.0, exceeded() - exceededBefore);
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldRetryTransientServerError() {
+        // Given
+        var username = "reactiveflakyuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .inScenario("reactive-flaky")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .inScenario("reactive-flaky")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"flaky-repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/flaky-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("flaky-repo")
+                .jsonPath("$[0].branches[0].name").isEqualTo("main");
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldReturn502_WhenServerErrorPersists() {
+        // Given
+        var username = "reactivebrokenuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse().withStatus(500)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isEqualTo(502)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(502);
+
+        verify(3, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    private double exceeded() {
+        var counter = meterRegistry.find("github.pagination.max.pages.exceeded").tag("endpoint", "repos").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
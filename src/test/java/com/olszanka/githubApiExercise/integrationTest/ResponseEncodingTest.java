@@ -0,0 +1,148 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.olszanka.githubApiExercise.config.EncodingConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.hot-users.min-requests=1",
+        "server.compression.min-response-size=1B"
+})
+@AutoConfigureWebTestClient
+class ResponseEncodingTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldAnswerCborAndReuseEncodedBytesForHotUser() throws IOException {
+        // Given - the first request loads the user and makes them hot, the second encodes the hot result
+        var username = "cboruser";
+        stubRepositories(username);
+        var first = get(username, MediaType.APPLICATION_CBOR);
+        var second = get(username, MediaType.APPLICATION_CBOR);
+        var serializationsBefore = serializations();
+
+        // When
+        var third = get(username, MediaType.APPLICATION_CBOR);
+
+        // Then - the third answer is written from the kept bytes without serializing again
+        var tree = new ObjectMapper(new CBORFactory()).readTree(first);
+        assertEquals("cbor-repo", tree.get(0).get("name").asText());
+        assertEquals("abc123", tree.get(0).get("branches").get(0).get("last_commit_sha").asText());
+        assertArrayEquals(second, third);
+        assertEquals(0, serializations() - serializationsBefore);
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldAnswerSmile_WhenAccepted() throws IOException {
+        // Given
+        var username = "smileuser";
+        stubRepositories(username);
+
+        // When - a live answer, then one written from the hot result
+        var live = get(username, EncodingConfig.APPLICATION_SMILE);
+        var hot = get(username, EncodingConfig.APPLICATION_SMILE);
+
+        // Then
+        var smile = new ObjectMapper(new SmileFactory());
+        for (var body : new byte[][] {live, hot}) {
+            var tree = smile.readTree(body);
+            assertEquals("cbor-repo", tree.get(0).get("name").asText());
+            assertEquals(username, tree.get(0).get("owner_login").asText());
+            assertEquals("abc123", tree.get(0).get("branches").get(0).get("last_commit_sha").asText());
+        }
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldGzipWhenAccepted() {
+        // Given
+        var username = "gzipuser";
+        stubRepositories(username);
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    private byte[] get(String username, MediaType mediaType) {
+        return webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .accept(mediaType)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(mediaType)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private long serializations() {
+        var timer = meterRegistry.find("github.request.phase").tag("phase", "serialization").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private void stubRepositories(String username) {
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"cbor-repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/cbor-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+    }
+}
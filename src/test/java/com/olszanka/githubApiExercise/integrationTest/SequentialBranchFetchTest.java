@@ -0,0 +1,69 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.olszanka.githubApiExercise.integrationTest.BranchFetchTest.stubBranches;
+import static com.olszanka.githubApiExercise.integrationTest.BranchFetchTest.stubRepositories;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "github.api.branch-fetch.mode=sequential")
+@AutoConfigureWebTestClient
+class SequentialBranchFetchTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldFetchBranchesOneAfterAnother_WhenModeIsSequential() {
+        // Given
+        var username = "sequentialuser";
+
+        stubRepositories(username, "first-repo", "second-repo");
+        stubBranches(username, "first-repo", "aaa111", 100);
+        stubBranches(username, "second-repo", "bbb222", 0);
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("first-repo")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("aaa111")
+                .jsonPath("$[1].name").isEqualTo("second-repo")
+                .jsonPath("$[1].branches[0].last_commit_sha").isEqualTo("bbb222");
+
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/first-repo/branches")));
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/second-repo/branches")));
+    }
+}
@@ -0,0 +1,143 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.olszanka.githubApiExercise.service.SnapshotStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "github.api.snapshot.enabled=true")
+@AutoConfigureWebTestClient
+class SnapshotStoreTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private SnapshotStore snapshotStore;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        // A log left behind by a previous run: a result stored an hour ago, validators older
+        // than the cache ttl, a removed user and a record torn by a crash mid-write
+        var directory = Files.createTempDirectory("snapshots");
+        var storedAt = System.currentTimeMillis() - Duration.ofHours(1).toMillis();
+        var pageStoredAt = System.currentTimeMillis() - Duration.ofHours(2).toMillis();
+        Files.writeString(directory.resolve("snapshots.log"), "user\tsnapuser\t" + storedAt + "\t"
+                + "[{\"name\":\"stored-repo\",\"owner_login\":\"snapuser\",\"branches\":[{\"name\":\"main\",\"last_commit_sha\":\"abc123\"}]}]\n"
+                + "repos\thttp://localhost:8089/users/expiredpageuser/repos?per_page=100\t" + pageStoredAt + "\t"
+                + "{\"etag\":\"\\\"expired\\\"\",\"lastModified\":null,\"link\":null,\"items\":[]}\n"
+                + "user\tremoveduser\t" + storedAt + "\t[]\n"
+                + "user\tremoveduser\t" + storedAt + "\tnull\n"
+                + "user\ttornuser\t" + storedAt + "\t[{\"name\":\"torn");
+
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+        registry.add("github.api.snapshot.directory", directory::toString);
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldServeStoredSnapshotAndRefreshInBackground() throws InterruptedException {
+        // Given
+        var username = "snapuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"fresh-repo\",\"fork\":false,\"owner\":{\"login\":\"snapuser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/fresh-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"def456\"}}]")));
+
+        // Lookups miss instead of blocking until the startup scan is done
+        for (var attempt = 0; attempt < 50 && snapshotStore.size() == 0; attempt++) {
+            Thread.sleep(100);
+        }
+        assertEquals(2, snapshotStore.size());
+
+        // When & Then - the stale snapshot is answered right away
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("Age")
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("stored-repo")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("abc123");
+
+        // When & Then - the background refresh replaces it
+        var refreshed = false;
+        for (var attempt = 0; attempt < 50 && !refreshed; attempt++) {
+            Thread.sleep(100);
+            var body = webTestClient.get()
+                    .uri("/api/github/repositories/" + username)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class)
+                    .returnResult()
+                    .getResponseBody();
+            refreshed = body != null && body.contains("fresh-repo");
+        }
+
+        assertTrue(refreshed, "snapshot was not refreshed");
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testGetUserRepositories_ShouldNotRevalidateWithStoredValidatorsPastTtl() throws InterruptedException {
+        // Given
+        var username = "expiredpageuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+
+        for (var attempt = 0; attempt < 50 && snapshotStore.size() == 0; attempt++) {
+            Thread.sleep(100);
+        }
+
+        // When & Then - the stored entry keeps its age across the reload and has expired
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos"))
+                .withoutHeader("If-None-Match"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class StreamingTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testStreamUserRepositories_ShouldWriteOneRepositoryPerLine() {
+        // Given
+        var username = "testuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getRepositoriesResponse())));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getBranchesResponse("test-repo-1"))));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/test-repo-2/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getBranchesResponse("test-repo-2"))));
+
+        // When & Then - lines arrive in completion order, so only their set is checked
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username + "/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> {
+                    var lines = body.strip().split("\n");
+                    assertEquals(2, lines.length);
+                    assertTrue(body.contains("\"name\":\"test-repo-1\""));
+                    assertTrue(body.contains("\"last_commit_sha\":\"xyz789abc123456\""));
+                    assertFalse(body.contains("forked-repo"));
+                });
+    }
+
+    @Test
+    void testStreamUserRepositories_ShouldReturn404_WhenUserDoesNotExist() {
+        // Given
+        var username = "nonexistentstreamuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MockDataLoader.getErrorResponse("user_not_found"))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username + "/stream")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("User not found");
+    }
+}
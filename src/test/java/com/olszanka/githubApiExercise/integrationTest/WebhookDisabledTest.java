@@ -0,0 +1,36 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class WebhookDisabledTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testWebhook_ShouldReturn404_WhenNoSecretIsConfigured() throws Exception {
+        // Given
+        var payload = new ClassPathResource("webhooks/push.json").getContentAsByteArray();
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/github/webhooks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-GitHub-Event", "push")
+                .header("X-Hub-Signature-256", "sha256=" + "0".repeat(64))
+                .bodyValue(payload)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Webhooks are not configured");
+    }
+}
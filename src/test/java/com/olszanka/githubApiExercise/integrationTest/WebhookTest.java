@@ -0,0 +1,314 @@
+package com.olszanka.githubApiExercise.integrationTest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "github.api.hot-users.min-requests=1",
+        "github.api.webhook.secret=test-secret",
+        "github.api.resilience.hedge.enabled=false"
+})
+@AutoConfigureWebTestClient
+class WebhookTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WireMockServer wireMockServer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> "http://localhost:8089");
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8089));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", 8089);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testWebhook_PushShouldUpdateHotResultWithoutUpstreamCalls() throws Exception {
+        // Given
+        var username = "hookuser";
+
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"hook-repo\",\"fork\":false,\"owner\":{\"login\":\"hookuser\"}}]")));
+
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/hook-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123def456789abc123def456789abc123def4\"}}]")));
+
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk();
+
+        var payload = new ClassPathResource("webhooks/push.json").getContentAsByteArray();
+
+        // When
+        webTestClient.post()
+                .uri("/api/github/webhooks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-GitHub-Event", "push")
+                .header("X-Hub-Signature-256", sign(payload))
+                .bodyValue(payload)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].branches[0].name").isEqualTo("main")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("9f8e7d6c5b4a39281706f5e4d3c2b1a098765432");
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/" + username + "/hook-repo/branches")));
+    }
+
+    @Test
+    void testWebhook_ShouldRejectInvalidSignature() throws Exception {
+        // Given
+        var payload = new ClassPathResource("webhooks/push.json").getContentAsByteArray();
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/github/webhooks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-GitHub-Event", "push")
+                .header("X-Hub-Signature-256", "sha256=" + "0".repeat(64))
+                .bodyValue(payload)
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(401)
+                .jsonPath("$.message").isEqualTo("Invalid webhook signature");
+    }
+
+    @Test
+    void testWebhook_DeletedBranchShouldBeRemovedFromHotResult() throws Exception {
+        // Given
+        var username = "hookbranchuser";
+        stubRepositories(username, "hook-repo");
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/hook-repo/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}},"
+                                + "{\"name\":\"feature\",\"commit\":{\"sha\":\"def456\"}}]")));
+        load(username);
+
+        // When
+        deliver("delete", payload("webhooks/delete-branch.json"));
+
+        // Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].branches.length()").isEqualTo(1)
+                .jsonPath("$[0].branches[0].name").isEqualTo("main");
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testWebhook_CreatedBranchWithoutKnownHeadShouldDropHotResult() throws Exception {
+        // Given
+        var username = "hookcreateuser";
+        stubRepositories(username, "hook-repo");
+        load(username);
+
+        // When
+        deliver("create", payload("webhooks/create-branch.json"));
+
+        // Then - the next request fetches the user again
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testWebhook_DeletedRepositoryShouldBeRemovedFromHotResult() throws Exception {
+        // Given
+        var username = "hookdeleteuser";
+        stubRepositories(username, "kept-repo", "gone-repo");
+        load(username);
+
+        // When
+        deliver("repository", payload("webhooks/repository-deleted.json"));
+
+        // Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("kept-repo");
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testWebhook_RenamedRepositoryShouldKeepItsBranches() throws Exception {
+        // Given
+        var username = "hookrenameuser";
+        stubRepositories(username, "old-name");
+        load(username);
+
+        // When
+        deliver("repository", payload("webhooks/repository-renamed.json"));
+
+        // Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("new-name")
+                .jsonPath("$[0].branches[0].last_commit_sha").isEqualTo("abc123");
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testWebhook_TransferredRepositoryShouldLeavePreviousOwner() throws Exception {
+        // Given
+        var username = "hooktransferfrom";
+        stubRepositories(username, "moved-repo", "stays-repo");
+        load(username);
+
+        // When
+        deliver("repository", payload("webhooks/repository-transferred.json"));
+
+        // Then
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("stays-repo");
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    @Test
+    void testWebhook_ShouldDropLoadThatWasRunningWhenItArrived() throws Exception {
+        // Given - a slow load of a repository that is deleted while it runs
+        var username = "hookraceuser";
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(1000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"gone-repo\",\"fork\":false,\"owner\":{\"login\":\"" + username + "\"}}]")));
+        stubBranches(username, "gone-repo");
+
+        var slowLoad = CompletableFuture.runAsync(() -> load(username));
+        Thread.sleep(300);
+
+        // When
+        deliver("repository", new String(payload("webhooks/repository-deleted.json"), StandardCharsets.UTF_8)
+                .replace("hookdeleteuser", username)
+                .getBytes(StandardCharsets.UTF_8));
+        slowLoad.get();
+
+        // Then - the raced result was not kept, so the next request loads again
+        load(username);
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/" + username + "/repos")));
+    }
+
+    private void load(String username) {
+        webTestClient.get()
+                .uri("/api/github/repositories/" + username)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private void deliver(String event, byte[] payload) throws Exception {
+        webTestClient.post()
+                .uri("/api/github/webhooks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-GitHub-Event", event)
+                .header("X-Hub-Signature-256", sign(payload))
+                .bodyValue(payload)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    private static byte[] payload(String path) throws IOException {
+        return new ClassPathResource(path).getContentAsByteArray();
+    }
+
+    private static void stubRepositories(String username, String... names) {
+        var body = new StringBuilder("[");
+        for (var name : names) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append("{\"name\":\"").append(name).append("\",\"fork\":false,\"owner\":{\"login\":\"").append(username).append("\"}}");
+            stubBranches(username, name);
+        }
+        stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body.append(']').toString())));
+    }
+
+    private static void stubBranches(String username, String name) {
+        stubFor(get(urlPathEqualTo("/repos/" + username + "/" + name + "/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"abc123\"}}]")));
+    }
+
+    private static String sign(byte[] payload) throws Exception {
+        var mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("test-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+}
@@ -0,0 +1,82 @@
+package com.olszanka.githubApiExercise.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.olszanka.githubApiExercise.dto.BranchDto;
+import com.olszanka.githubApiExercise.model.GitHubOwner;
+import com.olszanka.githubApiExercise.model.GitHubRepository;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.BranchPage;
+import com.olszanka.githubApiExercise.service.GitHubPageConverter.RepositoryPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GitHubPageConverterTest {
+
+    private final GitHubPageConverter converter = new GitHubPageConverter(new JsonFactory());
+
+    @Test
+    void testRead_ShouldDropForksAndSkipUnknownFields_InRecordedRepositoriesPage() throws IOException {
+        // Given
+        var page = recorded("github/repos-page.json");
+
+        // When
+        var result = (RepositoryPage) converter.read(RepositoryPage.class, page);
+
+        // Then
+        assertEquals(List.of(
+                new GitHubRepository("Hello-World", new GitHubOwner("octocat"), false, "2011-01-26T19:06:43Z"),
+                new GitHubRepository("git-consortium", new GitHubOwner("octocat"), false, "2014-03-28T17:55:38Z")
+        ), result.items());
+    }
+
+    @Test
+    void testRead_ShouldKeepOnlyNameAndSha_InRecordedBranchesPage() throws IOException {
+        // Given
+        var page = recorded("github/branches-page.json");
+
+        // When
+        var result = (BranchPage) converter.read(BranchPage.class, page);
+
+        // Then
+        assertEquals(List.of(
+                new BranchDto("master", "c5b97d5ae6c19d5c5df71a34c7fbeeda2479ccbc"),
+                new BranchDto("octocat-patch-1", "b1b3f9723831141a31a1a7252a213e216ea76e56")
+        ), result.items());
+    }
+
+    @Test
+    void testRead_ShouldRejectPageThatIsNotAnArray() {
+        // Given
+        var page = new MockHttpInputMessage("{\"message\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(RepositoryPage.class, page));
+    }
+
+    @Test
+    void testWrite_ShouldBeUnsupported() {
+        // Given
+        var page = new BranchPage(List.of(new BranchDto("main", "abc123")));
+
+        // When & Then
+        assertFalse(converter.canWrite(BranchPage.class, MediaType.APPLICATION_JSON));
+        assertThrows(HttpMessageNotWritableException.class,
+                () -> converter.write(page, MediaType.APPLICATION_JSON, new MockHttpOutputMessage()));
+    }
+
+    private static MockHttpInputMessage recorded(String path) throws IOException {
+        return new MockHttpInputMessage(new ClassPathResource(path).getInputStream());
+    }
+}